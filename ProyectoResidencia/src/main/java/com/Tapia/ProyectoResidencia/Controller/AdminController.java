@@ -1,26 +1,34 @@
 package com.Tapia.ProyectoResidencia.Controller;
 
 import com.Tapia.ProyectoResidencia.DTO.*;
+import com.Tapia.ProyectoResidencia.Enum.CatalogoImportacion;
 import com.Tapia.ProyectoResidencia.Enum.Rol;
 import com.Tapia.ProyectoResidencia.Enum.Sitio;
 import com.Tapia.ProyectoResidencia.Exception.ApiResponse;
 import com.Tapia.ProyectoResidencia.Model.*;
 import com.Tapia.ProyectoResidencia.Service.*;
+import com.Tapia.ProyectoResidencia.Utils.CsvUtils;
 import com.Tapia.ProyectoResidencia.Utils.IpUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/admin")
@@ -39,11 +47,17 @@ public class AdminController {
     private final AsignacionZoreAreService asignacionZoreAreService;
     private final LocalidadService localidadService;
     private final SeccionService seccionService;
+    private final UsuarioCacheService usuarioCacheService;
+    private final NotificacionDifusionService notificacionDifusionService;
+    private final UsuarioBajaService usuarioBajaService;
+    private final CatalogoImportService catalogoImportService;
+    private final ExportacionService exportacionService;
+    private final RolloverService rolloverService;
 
     // Listar todas las vocalías
     @GetMapping("/vocalia")
-    public ResponseEntity<List<Vocalia>> listarTodas() {
-        return ResponseEntity.ok(vocaliaService.listarTodas());
+    public ResponseEntity<byte[]> listarTodas(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderCatalogo(vocaliaService.listarTodas(), ifNoneMatch);
     }
 
     // Crear nueva vocalía (solo ADMIN)
@@ -110,6 +124,15 @@ public class AdminController {
         return ResponseEntity.ok(usuarios);
     }
 
+    // Exportar todos los usuarios a CSV
+    @GetMapping("/usuarios/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios(Authentication authentication,
+                                                                  HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        return CsvUtils.descarga("usuarios", exportacionService.exportarUsuarios(admin, Sitio.WEB, ip));
+    }
+
     // Elimina el registro de usuarios con status PENDIENTE
     @DeleteMapping("/eliminar-pendiente/{id}")
     public ResponseEntity<ApiResponse> eliminarUsuarioPendiente(@PathVariable Long id,
@@ -130,34 +153,129 @@ public class AdminController {
         return ResponseEntity.ok(new ApiResponse("Se eliminó el usuario correctamente ✅", HttpStatus.OK.value()));
     }
 
+    // Elimina en bloque usuarios INACTIVOS: los IDs indicados o, con ?todos=true, todos
+    @DeleteMapping("/eliminar-inactivos")
+    public ResponseEntity<BajaMasivaResultado> eliminarUsuariosInactivos(@RequestBody(required = false) @Valid UsuarioIdsRequest request,
+                                                                         @RequestParam(defaultValue = "false") boolean todos,
+                                                                         Authentication auth,
+                                                                         HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(auth.getName());
+        List<Long> ids = request != null ? request.ids() : null;
+        return ResponseEntity.ok(usuarioBajaService.eliminarInactivos(admin, ids, todos, Sitio.WEB, ip));
+    }
+
     //Listar todos los logs del login
     @GetMapping("/logs/login")
-    public ResponseEntity<Page<LoginLog>> listarLogsLogin(@RequestParam(defaultValue = "0") int page,
-                                                          @RequestParam(defaultValue = "50") int size) {
-        int maxSize = Math.min(size, 100); // Límite de seguridad
-        Pageable pageable = PageRequest.of(page, maxSize);
-        Page<LoginLog> logs = loginLogService.listarLogsLogin(pageable);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<CursorPage<LoginLog>> listarLogsLogin(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(loginLogService.listarLogsLogin(cursor, size));
+    }
+
+    // Búsqueda por evento, resultado, sitio, rol, ip, prefijo de correo y rango de fechas
+    @GetMapping("/logs/login/buscar")
+    public ResponseEntity<CursorPage<LoginLog>> buscarLogsLogin(@ModelAttribute LogFiltro filtro,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(loginLogService.buscarLogsLogin(filtro, cursor, size));
+    }
+
+    // Exportar a CSV los logs de login que cumplan el filtro
+    @GetMapping("/logs/login/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarLogsLogin(@ModelAttribute LogFiltro filtro,
+                                                                   Authentication authentication,
+                                                                   HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        return CsvUtils.descarga("logs-login", exportacionService.exportarLogsLogin(admin, Sitio.WEB, ip, filtro));
     }
 
     // ✅ Listar todos los logs del sistema
     @GetMapping("/logs/sistema")
-    public ResponseEntity<Page<SystemLog>> listarLogsSistema(@RequestParam(defaultValue = "0") int page,
-                                                             @RequestParam(defaultValue = "50") int size) {
-        int maxSize = Math.min(size, 100);
-        Pageable pageable = PageRequest.of(page, maxSize);
-        Page<SystemLog> logs = systemLogService.listarLogsSistema(pageable);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<CursorPage<SystemLog>> listarLogsSistema(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(systemLogService.listarLogsSistema(cursor, size));
+    }
+
+    // Búsqueda por evento, resultado, sitio, rol, ip, prefijo de correo y rango de fechas
+    @GetMapping("/logs/sistema/buscar")
+    public ResponseEntity<CursorPage<SystemLog>> buscarLogsSistema(@ModelAttribute LogFiltro filtro,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(systemLogService.buscarLogsSistema(filtro, cursor, size));
+    }
+
+    // Exportar a CSV los logs del sistema que cumplan el filtro
+    @GetMapping("/logs/sistema/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarLogsSistema(@ModelAttribute LogFiltro filtro,
+                                                                     Authentication authentication,
+                                                                     HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        return CsvUtils.descarga("logs-sistema", exportacionService.exportarLogsSistema(admin, Sitio.WEB, ip, filtro));
     }
 
     // ✅ Listar todos los logs de correos enviados
     @GetMapping("/logs/correos")
-    public ResponseEntity<Page<EmailLog>> listarLogsCorreos(@RequestParam(defaultValue = "0") int page,
-                                                            @RequestParam(defaultValue = "50") int size) {
-        int maxSize = Math.min(size, 100); // Límite de seguridad
-        Pageable pageable = PageRequest.of(page, maxSize);
-        Page<EmailLog> logs = emailLogService.listarLogsCorreo(pageable);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<CursorPage<EmailLog>> listarLogsCorreos(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(emailLogService.listarLogsCorreo(cursor, size));
+    }
+
+    // Exportar a CSV los logs de correos (filtra por evento y rango de fechas)
+    @GetMapping("/logs/correos/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarLogsCorreos(@ModelAttribute LogFiltro filtro,
+                                                                     Authentication authentication,
+                                                                     HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        return CsvUtils.descarga("logs-correos", exportacionService.exportarLogsCorreos(admin, Sitio.WEB, ip, filtro));
+    }
+
+    // Difundir una notificación a todos los usuarios de un rol y/o status (asíncrono)
+    @PostMapping("/notificaciones/difusion")
+    public ResponseEntity<DifusionProgreso> difundirNotificacion(Authentication authentication,
+                                                                 @RequestBody @Valid DifusionRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        DifusionProgreso progreso = notificacionDifusionService.iniciar(admin, request, Sitio.WEB, ip);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progreso);
+    }
+
+    // Consultar el avance de una difusión
+    @GetMapping("/notificaciones/difusion/{id}")
+    public ResponseEntity<DifusionProgreso> obtenerProgresoDifusion(@PathVariable String id) {
+        return ResponseEntity.ok(notificacionDifusionService.obtenerProgreso(id));
+    }
+
+    // Simular el rollover de la estructura Zore/Are/Sección a otro año (no escribe nada)
+    @PostMapping("/rollover/validar")
+    public ResponseEntity<RolloverValidacion> validarRollover(@RequestBody @Valid RolloverRequest request) {
+        return ResponseEntity.ok(rolloverService.validar(request));
+    }
+
+    // Clonar la estructura Zore/Are/Sección a otro año (asíncrono; relanzarlo completa un rollover interrumpido)
+    @PostMapping("/rollover")
+    public ResponseEntity<RolloverProgreso> iniciarRollover(Authentication authentication,
+                                                            @RequestBody @Valid RolloverRequest request,
+                                                            HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(authentication.getName());
+        RolloverProgreso progreso = rolloverService.iniciar(admin, request, Sitio.WEB, ip);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progreso);
+    }
+
+    // Consultar el avance de un rollover
+    @GetMapping("/rollover/{id}")
+    public ResponseEntity<RolloverProgreso> obtenerProgresoRollover(@PathVariable String id) {
+        return ResponseEntity.ok(rolloverService.obtenerProgreso(id));
+    }
+
+    // ✅ Aciertos/fallos de la caché de usuarios
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<List<CacheStatsResponse>> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(usuarioCacheService.obtenerEstadisticas());
     }
 
     // Cambiar el correo del usuario
@@ -194,8 +312,8 @@ public class AdminController {
 
     // Listar todos los municipios
     @GetMapping("/municipio")
-    public ResponseEntity<List<Municipio>> listarMunicipios() {
-        return ResponseEntity.ok(municipioService.listarTodos());
+    public ResponseEntity<byte[]> listarMunicipios(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderCatalogo(municipioService.listarTodos(), ifNoneMatch);
     }
 
     // Crear municipio
@@ -400,6 +518,18 @@ public class AdminController {
         return ResponseEntity.ok(zores);
     }
 
+    // 🔹 Listar años disponibles en ARE
+    @GetMapping("/are/anos")
+    public ResponseEntity<List<IdAnioDTO>> listarAniosAre() {
+        return ResponseEntity.ok(areService.obtenerAniosUnicos());
+    }
+
+    // 🔹 Listar años disponibles en asignaciones ZORE–ARE
+    @GetMapping("/asignacion-zore-are/anos")
+    public ResponseEntity<List<IdAnioDTO>> listarAniosAsignacion() {
+        return ResponseEntity.ok(asignacionZoreAreService.obtenerAniosUnicos());
+    }
+
     // 🔹 Listar ARE disponibles por año (sin asignar)
     // ahora acepta optional includeId para edición
     @GetMapping("/are/por-anio")
@@ -420,8 +550,8 @@ public class AdminController {
 
     // ✅ Listar todas las localidades
     @GetMapping("/localidad")
-    public ResponseEntity<List<Localidad>> listarLocalidades() {
-        return ResponseEntity.ok(localidadService.listarTodas());
+    public ResponseEntity<byte[]> listarLocalidades(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderCatalogo(localidadService.listarTodas(), ifNoneMatch);
     }
 
     // ✅ Crear nueva localidad
@@ -470,6 +600,14 @@ public class AdminController {
         return ResponseEntity.ok(new ApiResponse("Localidad eliminada correctamente ✅", HttpStatus.OK.value()));
     }
 
+    // 🔎 Autocompletado de localidades (sin acentos; por nombre o número; opcionalmente por municipio)
+    @GetMapping("/localidad/buscar")
+    public ResponseEntity<List<LocalidadResponse>> buscarLocalidades(@RequestParam String q,
+                                                                     @RequestParam(required = false) String municipioId,
+                                                                     @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(localidadService.buscar(q, municipioId, limite));
+    }
+
     // ✅ Listar localidades con paginación
     @GetMapping("/localidad/paginadas")
     public ResponseEntity<Page<LocalidadResponse>> listarLocalidadesPaginadas(
@@ -485,9 +623,9 @@ public class AdminController {
 
     // 🔹 Listar localidades por ID de municipio
     @GetMapping("/localidad/por-municipio/{municipioId}")
-    public ResponseEntity<List<LocalidadResponse>> listarLocalidadesPorMunicipio(@PathVariable String municipioId) {
-        List<LocalidadResponse> localidades = localidadService.listarPorMunicipio(municipioId);
-        return ResponseEntity.ok(localidades);
+    public ResponseEntity<byte[]> listarLocalidadesPorMunicipio(@PathVariable String municipioId,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responderCatalogo(localidadService.listarPorMunicipio(municipioId), ifNoneMatch);
     }
 
     // ✅ Listar secciones con paginación
@@ -503,6 +641,12 @@ public class AdminController {
         return ResponseEntity.ok(secciones);
     }
 
+    // 🔹 Listar años disponibles en secciones
+    @GetMapping("/seccion/anos")
+    public ResponseEntity<List<IdAnioDTO>> listarAniosSeccion() {
+        return ResponseEntity.ok(seccionService.obtenerAniosUnicos());
+    }
+
     // ✅ Listar todas las secciones
     @GetMapping("/seccion")
     public ResponseEntity<List<SeccionResponse>> listarTodasLasSecciones() {
@@ -547,4 +691,31 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    // Importación masiva desde CSV: el cuerpo de la petición (text/csv) se lee en streaming, sin cargarlo completo
+    @PostMapping("/importar/{catalogo}")
+    public ResponseEntity<ImportacionResultado> importarCatalogo(@PathVariable String catalogo,
+                                                                 Authentication auth,
+                                                                 HttpServletRequest httpRequest) throws IOException {
+        CatalogoImportacion tipo;
+        try {
+            tipo = CatalogoImportacion.valueOf(catalogo.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Catálogo de importación no soportado: " + catalogo);
+        }
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario admin = usuarioService.getUsuarioEntityByCorreo(auth.getName());
+        return ResponseEntity.ok(catalogoImportService.importar(admin, tipo, httpRequest.getInputStream(), Sitio.WEB, ip));
+    }
+
+    // Catálogos en caché: 304 sin cuerpo si el cliente ya tiene la versión, si no el JSON ya serializado
+    private ResponseEntity<byte[]> responderCatalogo(CatalogoSnapshot snapshot, String ifNoneMatch) {
+        if (snapshot.coincide(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.cuerpo());
+    }
 }
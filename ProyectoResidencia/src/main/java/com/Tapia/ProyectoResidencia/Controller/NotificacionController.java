@@ -1,15 +1,25 @@
 package com.Tapia.ProyectoResidencia.Controller;
 
+import com.Tapia.ProyectoResidencia.DTO.CursorPage;
+import com.Tapia.ProyectoResidencia.DTO.NotificacionIdsRequest;
 import com.Tapia.ProyectoResidencia.DTO.NotificacionResponse;
+import com.Tapia.ProyectoResidencia.DTO.NotificacionResumen;
 import com.Tapia.ProyectoResidencia.DTO.NotificationStatusRequest;
+import com.Tapia.ProyectoResidencia.Enum.NotificationTemplate;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Service.UsuarioService;
 import com.Tapia.ProyectoResidencia.Utils.AuthUtils;
 import com.Tapia.ProyectoResidencia.Service.NotificacionService;
+import com.Tapia.ProyectoResidencia.Service.NotificacionStreamService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +31,7 @@ public class NotificacionController {
 
     private final NotificacionService notificacionService;
     private final UsuarioService usuarioService;
+    private final NotificacionStreamService notificacionStreamService;
 
     @GetMapping
     public ResponseEntity<List<NotificacionResponse>> getMyNotificaciones(
@@ -33,6 +44,74 @@ public class NotificacionController {
         return ResponseEntity.ok(notificaciones);
     }
 
+    // Bandeja paginada por cursor; el usuario se filtra por id a partir del token
+    @GetMapping("/paginadas")
+    public ResponseEntity<CursorPage<NotificacionResumen>> listarNotificaciones(
+            Authentication authentication,
+            @RequestParam(defaultValue = "false") boolean soloNoLeidas,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        String correo = AuthUtils.extractEmailFromAuth(authentication);
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(correo);
+        return ResponseEntity.ok(notificacionService.listarNotificaciones(usuario.getId(), soloNoLeidas, cursor, size));
+    }
+
+    // Stream SSE con nuevas notificaciones y cambios de estado, en lugar de consultar periódicamente.
+    // Acepta el Bearer habitual (fetch) o ?ticket= obtenido de /stream/ticket (EventSource del navegador)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication, @RequestParam(required = false) String ticket) {
+        if (ticket != null) {
+            return notificacionStreamService.suscribir(notificacionStreamService.canjearTicket(ticket));
+        }
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            throw new BadCredentialsException("Se requiere un token o un ticket de stream");
+        }
+        String correo = AuthUtils.extractEmailFromAuth(authentication);
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(correo);
+        return notificacionStreamService.suscribir(usuario.getId());
+    }
+
+    // Ticket de un solo uso para abrir el stream con EventSource, que no puede enviar el header Authorization
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, String>> emitirTicketStream(Authentication authentication) {
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(AuthUtils.extractEmailFromAuth(authentication));
+        return ResponseEntity.ok(Map.of("ticket", notificacionStreamService.emitirTicket(usuario.getId())));
+    }
+
+    // Solo el número de no leídas, para el badge
+    @GetMapping("/no-leidas/conteo")
+    public ResponseEntity<Map<String, Long>> contarNoLeidas(Authentication authentication) {
+        String correo = AuthUtils.extractEmailFromAuth(authentication);
+        return ResponseEntity.ok(Map.of("noLeidas", notificacionService.contarNoLeidas(correo)));
+    }
+
+    // Marcar todas las notificaciones del usuario como leídas (un solo UPDATE)
+    @PatchMapping("/leidas")
+    public ResponseEntity<Map<String, Object>> marcarTodasComoLeidas(Authentication authentication) {
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(AuthUtils.extractEmailFromAuth(authentication));
+        int actualizadas = notificacionService.marcarTodasComoLeidas(usuario);
+        return ResponseEntity.ok(Map.of("message", "Notificaciones marcadas como leídas", "actualizadas", actualizadas));
+    }
+
+    // Marcar un conjunto de notificaciones como leídas (un solo UPDATE)
+    @PatchMapping("/leidas/seleccion")
+    public ResponseEntity<Map<String, Object>> marcarComoLeidas(Authentication authentication,
+                                                                @RequestBody @Valid NotificacionIdsRequest request) {
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(AuthUtils.extractEmailFromAuth(authentication));
+        int actualizadas = notificacionService.marcarComoLeidas(usuario, request.ids());
+        return ResponseEntity.ok(Map.of("message", "Notificaciones marcadas como leídas", "actualizadas", actualizadas));
+    }
+
+    // Descartar las notificaciones pendientes de una plantilla de mensaje (NEW_MESSAGE, CUSTOM_ADMIN) en un solo DELETE
+    @PostMapping("/resolver/{template}")
+    public ResponseEntity<Map<String, Object>> resolverPorTemplate(Authentication authentication,
+                                                                   @PathVariable NotificationTemplate template) {
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(AuthUtils.extractEmailFromAuth(authentication));
+        int resueltas = notificacionService.descartarPorTemplate(usuario, template);
+        return ResponseEntity.ok(Map.of("message", "Notificaciones resueltas", "actualizadas", resueltas));
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<Map<String, String>> updateNotificationStatus(
             @PathVariable Long id,
@@ -4,10 +4,13 @@ import com.Tapia.ProyectoResidencia.DTO.*;
 import com.Tapia.ProyectoResidencia.Enum.Sitio;
 import com.Tapia.ProyectoResidencia.Exception.ApiResponse;
 import com.Tapia.ProyectoResidencia.Model.Contrato;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Model.UsuarioContrato;
 import com.Tapia.ProyectoResidencia.Service.ContratoService;
+import com.Tapia.ProyectoResidencia.Service.ExportacionService;
 import com.Tapia.ProyectoResidencia.Service.UsuarioContratoService;
 import com.Tapia.ProyectoResidencia.Service.UsuarioService;
+import com.Tapia.ProyectoResidencia.Utils.CsvUtils;
 import com.Tapia.ProyectoResidencia.Utils.IpUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -20,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -32,6 +36,7 @@ public class RRHHController {
     private final ContratoService contratoService;
     private final UsuarioContratoService  usuarioContratoService;
     private final UsuarioService usuarioService;
+    private final ExportacionService exportacionService;
 
     //Crear un nuevo contrato
     @PostMapping("/contrato")
@@ -128,6 +133,15 @@ public class RRHHController {
         return ResponseEntity.ok(usuariosContratos);
     }
 
+    // Exportar todos los vínculos de usuario-contrato a CSV
+    @GetMapping("/usuario-contratos/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarUsuariosContratos(Authentication auth,
+                                                                           HttpServletRequest httpRequest) {
+        String ip = IpUtils.extractClientIp(httpRequest);
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(auth.getName());
+        return CsvUtils.descarga("usuario-contratos", exportacionService.exportarUsuarioContratos(usuario, Sitio.WEB, ip));
+    }
+
     // Obtener la lista de todos los contratos activos
     @GetMapping("/contratos/activos")
     public ResponseEntity<List<ContratoActivo>> obtenerContratosActivos() {
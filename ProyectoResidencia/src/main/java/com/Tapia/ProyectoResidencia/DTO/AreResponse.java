@@ -31,4 +31,11 @@ public record AreResponse(
                         : null
         );
     }
+
+    // 🔹 Constructor plano para proyecciones JPQL (sin hidratar la entidad)
+    public AreResponse(Long id, int numeracion, String anio,
+                       Long usuarioId, String nombre, String apellidoPaterno, String apellidoMaterno) {
+        this(id, numeracion, anio,
+                usuarioId != null ? new UsuarioSimple(usuarioId, nombre, apellidoPaterno, apellidoMaterno) : null);
+    }
 }
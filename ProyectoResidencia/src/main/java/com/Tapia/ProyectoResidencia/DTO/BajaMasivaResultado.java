@@ -0,0 +1,7 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+public record BajaMasivaResultado(
+        long procesados,  // IDs revisados
+        long eliminados,  // usuarios respaldados y borrados
+        long omitidos     // no INACTIVOS, inexistentes o aún responsables de una Zore/Are
+) {}
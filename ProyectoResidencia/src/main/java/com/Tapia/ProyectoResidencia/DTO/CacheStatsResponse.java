@@ -0,0 +1,10 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+public record CacheStatsResponse(
+        String nombre,
+        long tamano,
+        long aciertos,
+        long fallos,
+        double tasaAciertos,
+        long expulsiones
+) {}
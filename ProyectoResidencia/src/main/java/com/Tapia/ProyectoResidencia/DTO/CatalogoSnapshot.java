@@ -0,0 +1,16 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+// Versión serializada de un catálogo: el cuerpo JSON se genera una sola vez por versión
+public record CatalogoSnapshot(
+        String etag,   // hash del cuerpo, entre comillas como exige el encabezado ETag
+        byte[] cuerpo
+) {
+    public boolean coincide(String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+        for (String valor : ifNoneMatch.split(",")) {
+            String v = valor.trim();
+            if (v.equals("*") || v.equals(etag) || v.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Página por cursor: sin total ni número de página, solo el cursor para pedir la siguiente
+public record CursorPage<T>(
+        List<T> contenido,
+        String siguienteCursor,
+        boolean hayMas
+) {
+    // Recibe tamano + 1 filas: la sobrante solo indica que hay más páginas
+    public static <T> CursorPage<T> of(List<T> filas, int tamano, Function<T, LogCursor> cursor) {
+        boolean hayMas = filas.size() > tamano;
+        List<T> contenido = hayMas ? filas.subList(0, tamano) : filas;
+        String siguiente = hayMas ? cursor.apply(contenido.get(contenido.size() - 1)).codificar() : null;
+        return new CursorPage<>(contenido, siguiente, hayMas);
+    }
+}
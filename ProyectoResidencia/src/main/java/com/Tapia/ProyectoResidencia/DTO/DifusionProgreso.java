@@ -0,0 +1,14 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import java.time.LocalDateTime;
+
+public record DifusionProgreso(
+        String id,
+        Long notificacionId,
+        String estado,      // EN_PROCESO, COMPLETADA o ERROR
+        long total,         // usuarios que cumplen el criterio al iniciar
+        long entregadas,    // filas insertadas en notificacion_usuario hasta ahora
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        String error
+) {}
@@ -0,0 +1,19 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Status;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record DifusionRequest(
+        @NotBlank(message = "El título es obligatorio")
+        @Size(max = 100, message = "El título no puede exceder 100 caracteres")
+        String titulo,
+
+        @NotBlank(message = "El mensaje es obligatorio")
+        @Size(max = 500, message = "El mensaje no puede exceder 500 caracteres")
+        String mensaje,
+
+        Rol rol,       // destinatarios por rol (opcional)
+        Status status  // destinatarios por status (opcional); al menos uno de los dos
+) {}
@@ -0,0 +1,15 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import com.Tapia.ProyectoResidencia.Enum.CatalogoImportacion;
+
+import java.util.List;
+
+public record ImportacionResultado(
+        CatalogoImportacion catalogo,
+        long filas,       // filas de datos leídas (sin encabezado ni líneas vacías)
+        long insertadas,
+        long rechazadas,
+        List<ErrorFila> errores  // limitado a app.importacion.max-errores
+) {
+    public record ErrorFila(long fila, String mensaje) {}
+}
@@ -0,0 +1,22 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+// Claims de un token ya verificado (firma + expiración), se parsea una sola vez por petición
+public record JwtClaims(
+        String correo,   // subject del token
+        String rol,      // null en refresh tokens
+        Instant emitidoEn,
+        Instant expiraEn
+) {
+    public static JwtClaims fromClaims(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("rol", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import java.util.Date;
+
+// Posición (fecha, id) de la última fila entregada; se serializa como "<epochMillis>_<id>"
+public record LogCursor(Date fecha, Long id) {
+
+    public String codificar() {
+        return fecha.getTime() + "_" + id;
+    }
+
+    public static LogCursor decodificar(String cursor) {
+        String[] partes = cursor.split("_");
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        try {
+            return new LogCursor(new Date(Long.parseLong(partes[0])), Long.parseLong(partes[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
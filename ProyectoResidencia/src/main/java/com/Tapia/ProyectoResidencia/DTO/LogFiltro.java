@@ -0,0 +1,21 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Enum.Resultado;
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Sitio;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.util.Date;
+
+// Criterios opcionales de búsqueda en bitácoras; los nulos no filtran
+public record LogFiltro(
+        Evento evento,
+        Resultado resultado,
+        Sitio sitio,
+        Rol rol,
+        String ip,
+        String correo, // prefijo, sin distinguir mayúsculas
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date desde,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date hasta
+) {}
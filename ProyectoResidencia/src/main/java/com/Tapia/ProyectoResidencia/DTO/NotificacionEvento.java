@@ -0,0 +1,9 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+public record NotificacionEvento(
+        String tipo,      // NUEVA, LEIDA o RESUELTA
+        Long idRelacion,  // relación NotificacionUsuario afectada (null si no se conoce, p. ej. difusión)
+        String titulo,
+        String mensaje,
+        long noLeidas     // conteo actualizado para el badge
+) {}
@@ -0,0 +1,12 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record NotificacionIdsRequest(
+        @NotEmpty(message = "Debe indicarse al menos una notificación")
+        @Size(max = 500, message = "No se pueden actualizar más de 500 notificaciones a la vez")
+        List<Long> ids // IDs de relación NotificacionUsuario
+) {}
@@ -0,0 +1,15 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import com.Tapia.ProyectoResidencia.Enum.TipoNotificacion;
+
+import java.time.LocalDateTime;
+
+// Proyección directa desde la consulta, sin hidratar NotificacionUsuario/Notification/Usuario
+public record NotificacionResumen(
+        Long idRelacion, // 🔹 ID de la relación NotificacionUsuario (también forma parte del cursor)
+        String titulo,
+        String mensaje,
+        TipoNotificacion tipo,
+        boolean leida,
+        LocalDateTime fechaRecepcion
+) {}
@@ -0,0 +1,17 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import java.time.LocalDateTime;
+
+public record RolloverProgreso(
+        String id,
+        String anioOrigen,
+        String anioDestino,
+        String estado,      // EN_PROCESO, COMPLETADO o ERROR
+        String etapa,       // etapa en curso (o la última ejecutada)
+        int etapasCompletadas,
+        int totalEtapas,
+        long insertadas,    // Zores, Ares, asignaciones y secciones insertadas hasta ahora
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        String error
+) {}
@@ -0,0 +1,30 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RolloverRequest(
+        @NotBlank(message = "El año de origen es obligatorio")
+        @Pattern(regexp = "^(19|20)\\d{2}$",
+                message = "El año de origen debe tener exactamente 4 dígitos y estar entre 1900 y 2099")
+        String anioOrigen,
+
+        @NotBlank(message = "El año de destino es obligatorio")
+        @Pattern(regexp = "^(19|20)\\d{2}$",
+                message = "El año de destino debe tener exactamente 4 dígitos y estar entre 1900 y 2099")
+        String anioDestino,
+
+        // Responsables a sustituir en el año destino; los no listados conservan su Zore/Are
+        @Size(max = 500, message = "No se pueden reasignar más de 500 usuarios a la vez")
+        List<@Valid Reasignacion> reasignaciones
+) {
+    public record Reasignacion(
+            @NotNull(message = "El usuario de origen es obligatorio") Long usuarioOrigenId,
+            @NotNull(message = "El usuario de destino es obligatorio") Long usuarioDestinoId
+    ) {}
+}
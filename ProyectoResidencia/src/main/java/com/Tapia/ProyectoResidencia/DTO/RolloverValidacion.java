@@ -0,0 +1,18 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import java.util.List;
+
+// Resultado de la simulación: qué se clonaría por etapa y qué impide ejecutar el rollover
+public record RolloverValidacion(
+        String anioOrigen,
+        String anioDestino,
+        List<Etapa> etapas,
+        List<String> conflictos,
+        boolean valida        // sin conflictos: el rollover puede ejecutarse
+) {
+    public record Etapa(
+            String etapa,
+            long origen,      // registros en el año de origen
+            long pendientes   // registros que aún no existen en el año destino y se insertarían
+    ) {}
+}
@@ -0,0 +1,10 @@
+package com.Tapia.ProyectoResidencia.DTO;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UsuarioIdsRequest(
+        @Size(max = 5000, message = "No se pueden eliminar más de 5000 usuarios a la vez")
+        List<Long> ids // obligatorio salvo que se pida todos=true
+) {}
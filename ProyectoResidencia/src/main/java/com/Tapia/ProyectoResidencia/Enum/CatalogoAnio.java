@@ -0,0 +1,9 @@
+package com.Tapia.ProyectoResidencia.Enum;
+
+// Tablas con columna anio que alimentan los selectores de año
+public enum CatalogoAnio {
+    ZORE,
+    ARE,
+    ASIGNACION_ZORE_ARE,
+    SECCION
+}
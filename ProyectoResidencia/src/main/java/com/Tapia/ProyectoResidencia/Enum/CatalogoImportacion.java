@@ -0,0 +1,8 @@
+package com.Tapia.ProyectoResidencia.Enum;
+
+// Catálogos geográficos que admiten carga masiva por CSV
+public enum CatalogoImportacion {
+    MUNICIPIO,  // id,nombre
+    LOCALIDAD,  // municipio_id,numero_localidad,nombre
+    SECCION     // numero_seccion,anio,zore,are,municipio_id,localidades (números separados por ;)
+}
@@ -0,0 +1,8 @@
+package com.Tapia.ProyectoResidencia.Enum;
+
+public enum EstadoCorreo {
+    PENDIENTE,
+    ENVIANDO,
+    ENVIADO,
+    FALLIDO
+}
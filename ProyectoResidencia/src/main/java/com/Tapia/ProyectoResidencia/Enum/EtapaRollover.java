@@ -0,0 +1,9 @@
+package com.Tapia.ProyectoResidencia.Enum;
+
+// Orden de clonación: cada etapa depende de que la anterior ya exista en el año destino
+public enum EtapaRollover {
+    ZORES,
+    ARES,
+    ASIGNACIONES,
+    SECCIONES
+}
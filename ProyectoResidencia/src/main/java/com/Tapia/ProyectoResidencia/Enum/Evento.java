@@ -178,6 +178,23 @@ public enum Evento {
     SECCION_UPDATE_ERROR,
     SECCION_UPDATE_FALLIDO,
 
+    //Difusión de notificaciones (ADMIN)
+    NOTIFICACION_DIFUSION_EXITOSO,
+    NOTIFICACION_DIFUSION_ERROR,
+
+    //Importación masiva de catálogos (ADMIN)
+    IMPORTACION_CATALOGO_EXITOSO,
+    IMPORTACION_CATALOGO_ERROR,
+
+    //Clonación de la estructura Zore/Are/Sección a un nuevo año (ADMIN)
+    ROLLOVER_ESTRUCTURA_EXITOSO,
+    ROLLOVER_ESTRUCTURA_FALLIDO,
+    ROLLOVER_ESTRUCTURA_ERROR,
+
+    //Exportación de usuarios, vínculos y bitácoras a CSV (ADMIN, RRHH)
+    EXPORTACION_EXITOSO,
+    EXPORTACION_ERROR,
+
     //
     DESCONOCIDO
 }
@@ -8,7 +8,10 @@ import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "account_blocks")
+@Table(
+        name = "account_blocks",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"usuario_id", "evento"})
+)
 public class AccountBlock {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -12,7 +12,8 @@ import java.util.List;
 @Entity
 @Table(
         name = "ares",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"numeracion", "anio"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"numeracion", "anio"}),
+        indexes = @Index(name = "idx_are_anio", columnList = "anio")
 )
 public class Are {
 
@@ -7,7 +7,11 @@ import lombok.Data;
 @Entity
 @Table(
         name = "asignaciones_zore_are",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"zore_id", "are_id"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"zore_id", "are_id"}),
+        indexes = {
+                @Index(name = "idx_asignacion_are_anio", columnList = "are_id, anio"),
+                @Index(name = "idx_asignacion_anio", columnList = "anio")
+        }
 )
 public class AsignacionZoreAre {
 
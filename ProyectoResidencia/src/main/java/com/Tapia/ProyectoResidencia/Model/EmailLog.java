@@ -1,5 +1,6 @@
 package com.Tapia.ProyectoResidencia.Model;
 
+import com.Tapia.ProyectoResidencia.Enum.EstadoCorreo;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -8,7 +9,13 @@ import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "emails_logs")
+@Table(
+        name = "emails_logs",
+        indexes = {
+                @Index(name = "idx_emails_logs_estado_proximo", columnList = "estado, proximoIntento"),
+                @Index(name = "idx_emails_logs_fecha_id", columnList = "fechaEnvio, id")
+        }
+)
 public class EmailLog {
 
     @Id
@@ -17,7 +24,8 @@ public class EmailLog {
 
     private Long idUsuario; // Usuario afectado, si aplica (puede ser null para IP)
 
-    private String correoDestinatario; // A quién se envió el correo
+    @Column(length = 1000)
+    private String correoDestinatario; // A quién se envió el correo (separados por coma si es a varios administradores)
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -29,5 +37,17 @@ public class EmailLog {
     private String cuerpo; // Contenido del correo
 
     @Temporal(TemporalType.TIMESTAMP)
-    private Date fechaEnvio; // Fecha/hora de envío
+    private Date fechaEnvio; // Fecha/hora en que se generó el correo (no cambia: es la clave del listado por cursor)
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EstadoCorreo estado; // PENDIENTE, ENVIANDO, ENVIADO o FALLIDO
+
+    private int intentos; // Intentos de envío realizados
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date proximoIntento; // Cuándo puede volver a intentarse (o vence la reserva de un worker)
+
+    @Column(length = 500)
+    private String ultimoError; // Último error SMTP, si lo hubo
 }
@@ -8,10 +8,20 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.util.Date;
+import java.util.Locale;
 
 @Data
 @Entity
-@Table(name = "login_logs")
+@Table(
+        name = "login_logs",
+        indexes = {
+                @Index(name = "idx_login_logs_fecha_id", columnList = "fechaActividad, id"),
+                @Index(name = "idx_login_logs_evento_fecha", columnList = "tipoEvento, fechaActividad"),
+                @Index(name = "idx_login_logs_resultado_fecha", columnList = "resultado, fechaActividad"),
+                @Index(name = "idx_login_logs_correo_fecha", columnList = "correoNormalizado, fechaActividad"),
+                @Index(name = "idx_login_logs_ip_fecha", columnList = "ip, fechaActividad")
+        }
+)
 public class LoginLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +31,8 @@ public class LoginLog {
 
     private String correo; //Correo con el que se inició sesión
 
+    private String correoNormalizado; //Correo en minúsculas, para búsquedas por prefijo con índice
+
     @Enumerated(EnumType.STRING)
     private Rol rol; // Rol del usuario (puede ser null si el usuario no existe)
 
@@ -38,4 +50,10 @@ public class LoginLog {
     private String ip;//Ip de origen desde donde se esta realizando la acción (esto es opcional, si es posible recuperar la ip)
 
     @Enumerated(EnumType.STRING) @Column(nullable = false) private Evento tipoEvento; //Para poder identificar que tipo de evento se ejecutó
+
+    @PrePersist
+    @PreUpdate
+    private void normalizarCorreo() {
+        correoNormalizado = correo != null ? correo.toLowerCase(Locale.ROOT) : null;
+    }
 }
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(
         name = "notificacion_usuario",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"notificacion_id", "usuario_id"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"notificacion_id", "usuario_id"}),
+        indexes = {
+                @Index(name = "idx_notificacion_usuario_usuario_leida", columnList = "usuario_id, leida"),
+                @Index(name = "idx_notificacion_usuario_usuario_fecha", columnList = "usuario_id, fechaRecepcion, id")
+        }
 )
 public class NotificacionUsuario {
     @Id
@@ -10,7 +10,8 @@ import java.util.Set;
         name = "secciones",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"numero_seccion", "anio"})
-        }
+        },
+        indexes = @Index(name = "idx_seccion_anio", columnList = "anio")
 )
 @Data
 public class Seccion {
@@ -8,10 +8,20 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.util.Date;
+import java.util.Locale;
 
 @Data
 @Entity
-@Table(name = "system_logs")
+@Table(
+        name = "system_logs",
+        indexes = {
+                @Index(name = "idx_system_logs_fecha_id", columnList = "fechaActividad, id"),
+                @Index(name = "idx_system_logs_evento_fecha", columnList = "tipoEvento, fechaActividad"),
+                @Index(name = "idx_system_logs_resultado_fecha", columnList = "resultado, fechaActividad"),
+                @Index(name = "idx_system_logs_correo_fecha", columnList = "correoNormalizado, fechaActividad"),
+                @Index(name = "idx_system_logs_ip_fecha", columnList = "ip, fechaActividad")
+        }
+)
 public class SystemLog {
 
     @Id
@@ -22,6 +32,8 @@ public class SystemLog {
 
     private String correo; // Correo del usuario que ejecutó la acción
 
+    private String correoNormalizado; // Correo en minúsculas, para búsquedas por prefijo con índice
+
     @Enumerated(EnumType.STRING)
     private Rol rol; // Rol del usuario
 
@@ -42,4 +54,10 @@ public class SystemLog {
     private String descripcion; // Información adicional sobre la acción
 
     private String ip; // IP desde donde se realizó la acción (opcional)
+
+    @PrePersist
+    @PreUpdate
+    private void normalizarCorreo() {
+        correoNormalizado = correo != null ? correo.toLowerCase(Locale.ROOT) : null;
+    }
 }
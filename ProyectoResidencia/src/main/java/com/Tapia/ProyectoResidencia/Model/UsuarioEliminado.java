@@ -9,7 +9,11 @@ import java.util.Date;
 
 @Entity
 @Data
-@Table(name = "usuarios_eliminados")
+@Table(
+        name = "usuarios_eliminados",
+        // La baja masiva re-apunta referencias buscando el respaldo por id_original
+        indexes = @Index(name = "idx_usuario_eliminado_id_original", columnList = "idOriginal")
+)
 public class UsuarioEliminado {
 
     @Id
@@ -12,7 +12,8 @@ import java.util.List;
 @Entity
 @Table(
         name = "zores",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"numeracion", "anio"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"numeracion", "anio"}),
+        indexes = @Index(name = "idx_zore_anio", columnList = "anio")
 )
 public class Zore {
 
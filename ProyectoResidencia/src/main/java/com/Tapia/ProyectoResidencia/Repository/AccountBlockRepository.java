@@ -3,12 +3,43 @@ package com.Tapia.ProyectoResidencia.Repository;
 import com.Tapia.ProyectoResidencia.Model.AccountBlock;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountBlockRepository extends JpaRepository<AccountBlock, Long> {
     Optional<AccountBlock> findByUsuarioAndEvento(Usuario usuario, Evento evento);
     List<AccountBlock> findByUsuario(Usuario usuario);
+
+    // SELECT ... FOR UPDATE: serializa intentos concurrentes sobre la misma cuenta y evento
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountBlock> findWithLockByUsuarioAndEvento(Usuario usuario, Evento evento);
+
+    // Reinicia el contador en un solo UPDATE, sin tocar la fila si ya está limpia
+    @Modifying
+    @Query("""
+            UPDATE AccountBlock b SET b.intentosFallidos = 0, b.bloqueadaHasta = null
+            WHERE b.usuario = :usuario AND b.evento = :evento
+              AND (b.intentosFallidos > 0 OR b.bloqueadaHasta IS NOT NULL)
+            """)
+    int limpiar(@Param("usuario") Usuario usuario, @Param("evento") Evento evento);
+
+    // Igual que limpiar, pero respeta un bloqueo que otro intento concurrente acabe de fijar
+    @Modifying
+    @Query("""
+            UPDATE AccountBlock b SET b.intentosFallidos = 0, b.bloqueadaHasta = null
+            WHERE b.usuario = :usuario AND b.evento = :evento
+              AND (b.intentosFallidos > 0 OR b.bloqueadaHasta IS NOT NULL)
+              AND (b.bloqueadaHasta IS NULL OR b.bloqueadaHasta <= :ahora)
+            """)
+    int limpiarSiNoBloqueada(@Param("usuario") Usuario usuario,
+                             @Param("evento") Evento evento,
+                             @Param("ahora") Date ahora);
 }
@@ -1,8 +1,12 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.DTO.AreResponse;
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Model.Are;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +23,20 @@ public interface AreRepository extends JpaRepository<Are, Long> {
 
     // Listar todas las ARE de un año específico
     List<Are> findByAnio(String anio);
+
+    // ARE del año sin asignación (anti-join), más includeId aunque esté asignada; ésta va primero
+    @Query("""
+            SELECT new com.Tapia.ProyectoResidencia.DTO.AreResponse(
+                a.id, a.numeracion, a.anio, u.id, u.nombre, u.apellidoPaterno, u.apellidoMaterno)
+            FROM Are a LEFT JOIN a.usuario u
+            WHERE a.anio = :anio
+              AND (a.id = :includeId
+                   OR NOT EXISTS (SELECT 1 FROM AsignacionZoreAre az WHERE az.are.id = a.id AND az.anio = :anio))
+            ORDER BY CASE WHEN a.id = :includeId THEN 0 ELSE 1 END, a.id
+            """)
+    List<AreResponse> findDisponiblesPorAnio(@Param("anio") String anio, @Param("includeId") Long includeId);
+
+    // Un renglón por año (con el id más antiguo de ese año), resuelto sobre el índice de anio
+    @Query("SELECT new com.Tapia.ProyectoResidencia.DTO.IdAnioDTO(MIN(x.id), x.anio) FROM Are x GROUP BY x.anio ORDER BY MIN(x.id)")
+    List<IdAnioDTO> findAniosDistintos();
 }
@@ -1,7 +1,9 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Model.AsignacionZoreAre;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,8 @@ public interface AsignacionZoreAreRepository extends JpaRepository<AsignacionZor
     boolean existsByZoreIdAndAreIdAndIdNot(Long zoreId, Long areId, Long id);
 
     List<AsignacionZoreAre> findByAnio(String anio);
+
+    // Un renglón por año (con el id más antiguo de ese año), resuelto sobre el índice de anio
+    @Query("SELECT new com.Tapia.ProyectoResidencia.DTO.IdAnioDTO(MIN(x.id), x.anio) FROM AsignacionZoreAre x GROUP BY x.anio ORDER BY MIN(x.id)")
+    List<IdAnioDTO> findAniosDistintos();
 }
@@ -0,0 +1,99 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import com.Tapia.ProyectoResidencia.Model.LoginLog;
+import com.Tapia.ProyectoResidencia.Model.SystemLog;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Inserciones por lote de bitácoras. Con IDENTITY Hibernate no agrupa los INSERT, así que se escriben
+// con JDBC. Para que Connector/J los envíe como un solo INSERT multi-fila la URL debe llevar
+// rewriteBatchedStatements=true, p. ej.:
+//   spring.datasource.url=jdbc:mysql://localhost:3306/residencia?rewriteBatchedStatements=true
+// Sin el parámetro el lote funciona igual, pero cada fila es un viaje a la base de datos
+@Repository
+@RequiredArgsConstructor
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT_LOGIN = """
+            INSERT INTO login_logs (id_usuario, correo, correo_normalizado, rol, fecha_actividad, sitio, resultado, descripcion, ip, tipo_evento)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_SISTEMA = """
+            INSERT INTO system_logs (id_usuario, correo, correo_normalizado, rol, fecha_actividad, sitio, tipo_evento, resultado, descripcion, ip)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final Logger logger = Logger.getLogger(AuditLogJdbcRepository.class.getName());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String urlDatasource;
+
+    @PostConstruct
+    public void verificarUrl() {
+        if (urlDatasource.startsWith("jdbc:mysql:") && !urlDatasource.contains("rewriteBatchedStatements=true")) {
+            logger.log(Level.WARNING, "spring.datasource.url no incluye rewriteBatchedStatements=true: "
+                    + "las bitácoras se insertarán fila por fila");
+        }
+    }
+
+    // Transacción propia: la bitácora se conserva aunque la transacción de negocio haga rollback
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insertar(List<LoginLog> loginLogs, List<SystemLog> systemLogs) {
+        if (!loginLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LOGIN, loginLogs, loginLogs.size(), (ps, log) -> {
+                ps.setObject(1, log.getIdUsuario());
+                ps.setString(2, log.getCorreo());
+                ps.setString(3, normalizar(log.getCorreo()));
+                ps.setString(4, nombre(log.getRol()));
+                ps.setTimestamp(5, new Timestamp(log.getFechaActividad().getTime()));
+                ps.setString(6, nombre(log.getSitio()));
+                ps.setString(7, nombre(log.getResultado()));
+                ps.setString(8, log.getDescripcion());
+                ps.setString(9, log.getIp());
+                ps.setString(10, nombre(log.getTipoEvento()));
+            });
+        }
+        if (!systemLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SISTEMA, systemLogs, systemLogs.size(), (ps, log) -> {
+                ps.setObject(1, log.getIdUsuario());
+                ps.setString(2, log.getCorreo());
+                ps.setString(3, normalizar(log.getCorreo()));
+                ps.setString(4, nombre(log.getRol()));
+                ps.setTimestamp(5, new Timestamp(log.getFechaActividad().getTime()));
+                ps.setString(6, nombre(log.getSitio()));
+                ps.setString(7, nombre(log.getTipoEvento()));
+                ps.setString(8, nombre(log.getResultado()));
+                ps.setString(9, log.getDescripcion());
+                ps.setString(10, log.getIp());
+            });
+        }
+    }
+
+    // Rellena correo_normalizado en filas anteriores a la columna, por bloques para no bloquear la tabla
+    public int normalizarCorreosPendientes(String tabla, int lote) {
+        return jdbcTemplate.update("UPDATE " + tabla + " SET correo_normalizado = LOWER(correo)"
+                + " WHERE correo_normalizado IS NULL AND correo IS NOT NULL LIMIT ?", lote);
+    }
+
+    private static String normalizar(String correo) {
+        return correo != null ? correo.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String nombre(Enum<?> valor) {
+        return valor != null ? valor.name() : null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Lecturas de precarga e inserciones por lote para la importación masiva de catálogos geográficos.
+// Cada método de inserción es un bloque con su propia transacción cuando se llama fuera de una
+@Repository
+@RequiredArgsConstructor
+public class CatalogoImportJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record MunicipioFila(String id, String nombre) {}
+
+    public record LocalidadFila(String municipioId, String numeroLocalidad, String nombre) {}
+
+    public record SeccionFila(String numeroSeccion, String anio, Long asignacionId, List<Long> localidadIds) {}
+
+    // Localidades existentes de un municipio: número → id y nombres (en minúsculas) para validar duplicados
+    public record LocalidadesMunicipio(Map<String, Long> idsPorNumero, Set<String> nombres) {}
+
+    public Set<String> findMunicipioIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM municipios", String.class));
+    }
+
+    public Set<String> findMunicipioNombres() {
+        Set<String> nombres = new HashSet<>();
+        jdbcTemplate.queryForList("SELECT nombre FROM municipios", String.class)
+                .forEach(n -> nombres.add(n.toLowerCase(Locale.ROOT)));
+        return nombres;
+    }
+
+    public LocalidadesMunicipio findLocalidades(String municipioId) {
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> nombres = new HashSet<>();
+        jdbcTemplate.query("SELECT id, numero_localidad, nombre FROM localidades WHERE municipio_id = ?",
+                rs -> {
+                    ids.put(rs.getString("numero_localidad"), rs.getLong("id"));
+                    nombres.add(rs.getString("nombre").toLowerCase(Locale.ROOT));
+                }, municipioId);
+        return new LocalidadesMunicipio(ids, nombres);
+    }
+
+    public Set<String> findNumerosSeccion(String anio) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT numero_seccion FROM secciones WHERE anio = ?", String.class, anio));
+    }
+
+    // Asignaciones del año indexadas por "numeracionZore|numeracionAre"
+    public Map<String, Long> findAsignaciones(String anio) {
+        Map<String, Long> asignaciones = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT az.id, z.numeracion AS zore, a.numeracion AS are
+                FROM asignaciones_zore_are az
+                JOIN zores z ON z.id = az.zore_id
+                JOIN ares a ON a.id = az.are_id
+                WHERE az.anio = ?
+                """, rs -> {
+            asignaciones.put(rs.getInt("zore") + "|" + rs.getInt("are"), rs.getLong("id"));
+        }, anio);
+        return asignaciones;
+    }
+
+    @Transactional
+    public void insertarMunicipios(List<MunicipioFila> filas) {
+        jdbcTemplate.batchUpdate("INSERT INTO municipios (id, nombre) VALUES (?, ?)", filas, filas.size(),
+                (ps, f) -> {
+                    ps.setString(1, f.id());
+                    ps.setString(2, f.nombre());
+                });
+    }
+
+    @Transactional
+    public void insertarLocalidades(List<LocalidadFila> filas) {
+        jdbcTemplate.batchUpdate("INSERT INTO localidades (municipio_id, numero_localidad, nombre) VALUES (?, ?, ?)",
+                filas, filas.size(), (ps, f) -> {
+                    ps.setString(1, f.municipioId());
+                    ps.setString(2, f.numeroLocalidad());
+                    ps.setString(3, f.nombre());
+                });
+    }
+
+    // Secciones y su tabla intermedia en la misma transacción. Los ids generados se recuperan por la
+    // llave única (numero_seccion, anio) en una sola consulta, sin depender de las llaves del lote
+    @Transactional
+    public void insertarSecciones(List<SeccionFila> filas) {
+        jdbcTemplate.batchUpdate("INSERT INTO secciones (numero_seccion, anio, asignacion_zore_are_id) VALUES (?, ?, ?)",
+                filas, filas.size(), (ps, f) -> {
+                    ps.setString(1, f.numeroSeccion());
+                    ps.setString(2, f.anio());
+                    ps.setLong(3, f.asignacionId());
+                });
+
+        List<Object[]> llaves = filas.stream().map(f -> new Object[]{f.numeroSeccion(), f.anio()}).toList();
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, numero_seccion, anio FROM secciones WHERE (numero_seccion, anio) IN (:llaves)",
+                Map.of("llaves", llaves),
+                rs -> {
+                    ids.put(rs.getString("numero_seccion") + "|" + rs.getString("anio"), rs.getLong("id"));
+                });
+
+        List<Object[]> relaciones = new ArrayList<>();
+        for (SeccionFila f : filas) {
+            Long seccionId = ids.get(f.numeroSeccion() + "|" + f.anio());
+            f.localidadIds().forEach(localidadId -> relaciones.add(new Object[]{seccionId, localidadId}));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seccion_localidad (seccion_id, localidad_id) VALUES (?, ?)", relaciones);
+    }
+}
@@ -1,12 +1,73 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.Enum.EstadoCorreo;
 import com.Tapia.ProyectoResidencia.Model.EmailLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface EmailLogRepository extends JpaRepository<EmailLog, Long> {
-    Page<EmailLog> findAllByOrderByFechaEnvioDesc(Pageable pageable);
+
+    // Keyset: primera página y páginas siguientes a partir de (fechaEnvio, id), sin COUNT
+    @Query("SELECT e FROM EmailLog e ORDER BY e.fechaEnvio DESC, e.id DESC")
+    List<EmailLog> findPrimeraPagina(Pageable limite);
+
+    @Query("""
+            SELECT e FROM EmailLog e
+            WHERE e.fechaEnvio < :fecha OR (e.fechaEnvio = :fecha AND e.id < :id)
+            ORDER BY e.fechaEnvio DESC, e.id DESC
+            """)
+    List<EmailLog> findPaginaDespuesDe(@Param("fecha") Date fecha, @Param("id") Long id, Pageable limite);
+
+    // Correos listos para (re)intentarse: pendientes vencidos o reservas de un worker que no terminó
+    @Query("""
+            SELECT e.id FROM EmailLog e
+            WHERE e.estado IN :estados AND e.proximoIntento <= :ahora
+            ORDER BY e.proximoIntento
+            """)
+    List<Long> findIdsListos(@Param("estados") List<EstadoCorreo> estados,
+                             @Param("ahora") Date ahora,
+                             Pageable pageable);
+
+    // Reserva atómica: solo un worker obtiene 1 para el mismo correo
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE EmailLog e SET e.estado = :enviando, e.proximoIntento = :reservaHasta
+            WHERE e.id = :id AND e.estado IN :estados AND e.proximoIntento <= :ahora
+            """)
+    int reservar(@Param("id") Long id,
+                 @Param("estados") List<EstadoCorreo> estados,
+                 @Param("enviando") EstadoCorreo enviando,
+                 @Param("ahora") Date ahora,
+                 @Param("reservaHasta") Date reservaHasta);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE EmailLog e SET e.estado = :estado, e.intentos = e.intentos + 1,
+                   e.proximoIntento = null, e.ultimoError = null
+            WHERE e.id = :id
+            """)
+    int marcarEnviado(@Param("id") Long id, @Param("estado") EstadoCorreo estado);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE EmailLog e SET e.estado = :estado, e.intentos = e.intentos + 1,
+                   e.proximoIntento = :proximoIntento, e.ultimoError = :error
+            WHERE e.id = :id
+            """)
+    int marcarFallo(@Param("id") Long id,
+                    @Param("estado") EstadoCorreo estado,
+                    @Param("proximoIntento") Date proximoIntento,
+                    @Param("error") String error);
 }
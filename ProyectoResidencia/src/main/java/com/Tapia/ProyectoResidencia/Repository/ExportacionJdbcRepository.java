@@ -0,0 +1,148 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import com.Tapia.ProyectoResidencia.DTO.ContratoSimple;
+import com.Tapia.ProyectoResidencia.DTO.LogFiltro;
+import com.Tapia.ProyectoResidencia.DTO.UsuarioContratoDTO;
+import com.Tapia.ProyectoResidencia.DTO.UsuarioResumen;
+import com.Tapia.ProyectoResidencia.DTO.UsuarioSimple;
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Status;
+import com.Tapia.ProyectoResidencia.Enum.StatusContrato;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Lecturas para exportación: cada consulta recorre un cursor forward-only y entrega las filas una a una,
+// sin páginas ni listas intermedias. La conexión queda ocupada mientras dura el recorrido, es decir,
+// mientras el cliente descarga: WebConfig limita los hilos de exportación a la mitad del pool de Hikari
+@Repository
+public class ExportacionJdbcRepository {
+
+    private static final String USUARIOS = """
+            SELECT id, correo, nombre, apellido_paterno, apellido_materno, rol, status, telefono, genero, fecha_registro
+            FROM usuarios ORDER BY id
+            """;
+
+    private static final String USUARIO_CONTRATOS = """
+            SELECT uc.id, uc.numero_contrato, uc.fecha_asignacion, uc.estado, uc.observaciones,
+                   u.id AS u_id, u.nombre AS u_nombre, u.apellido_paterno AS u_paterno, u.apellido_materno AS u_materno,
+                   ue.id AS ue_id, ue.nombre AS ue_nombre, ue.apellido_paterno AS ue_paterno, ue.apellido_materno AS ue_materno,
+                   c.id AS c_id, c.puesto
+            FROM usuario_contratos uc
+            JOIN contratos c ON c.id = uc.contrato_id
+            LEFT JOIN usuarios u ON u.id = uc.usuario_id
+            LEFT JOIN usuarios_eliminados ue ON ue.id = uc.usuario_eliminado_id
+            ORDER BY uc.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ExportacionJdbcRepository(DataSource dataSource) {
+        // Integer.MIN_VALUE: Connector/J lee el ResultSet en streaming en lugar de cargarlo completo en memoria
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void recorrerUsuarios(Consumer<UsuarioResumen> consumidor) {
+        jdbcTemplate.query(USUARIOS, rs -> {
+            consumidor.accept(new UsuarioResumen(
+                    rs.getLong("id"),
+                    rs.getString("correo"),
+                    rs.getString("nombre"),
+                    rs.getString("apellido_paterno"),
+                    rs.getString("apellido_materno"),
+                    rs.getString("rol") != null ? Rol.valueOf(rs.getString("rol")) : null,
+                    rs.getString("status") != null ? Status.valueOf(rs.getString("status")) : null,
+                    rs.getString("telefono"),
+                    rs.getString("genero"),
+                    rs.getTimestamp("fecha_registro")
+            ));
+        });
+    }
+
+    public void recorrerUsuarioContratos(Consumer<UsuarioContratoDTO> consumidor) {
+        jdbcTemplate.query(USUARIO_CONTRATOS, rs -> {
+            Long usuarioId = rs.getObject("u_id", Long.class);
+            Long eliminadoId = rs.getObject("ue_id", Long.class);
+            Timestamp fechaAsignacion = rs.getTimestamp("fecha_asignacion");
+            consumidor.accept(new UsuarioContratoDTO(
+                    rs.getLong("id"),
+                    usuarioId != null ? new UsuarioSimple(usuarioId, rs.getString("u_nombre"),
+                            rs.getString("u_paterno"), rs.getString("u_materno")) : null,
+                    eliminadoId != null ? new UsuarioSimple(eliminadoId, rs.getString("ue_nombre"),
+                            rs.getString("ue_paterno"), rs.getString("ue_materno")) : null,
+                    new ContratoSimple(rs.getLong("c_id"), rs.getString("puesto")),
+                    rs.getString("numero_contrato"),
+                    fechaAsignacion != null ? fechaAsignacion.toLocalDateTime() : null,
+                    rs.getString("estado") != null ? StatusContrato.valueOf(rs.getString("estado")) : null,
+                    rs.getString("observaciones")
+            ));
+        });
+    }
+
+    // Bitácoras: mismas columnas de filtro que LogSpecifications, ordenadas como el listado (fecha, id) desc.
+    // tabla, columnas y columnaFecha son constantes del servicio, nunca entrada del usuario
+    public void recorrerLogs(String tabla, List<String> columnas, String columnaFecha, LogFiltro filtro,
+                             Consumer<Object[]> consumidor) {
+        List<String> condiciones = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (filtro.evento() != null) {
+            condiciones.add("tipo_evento = :evento");
+            params.addValue("evento", filtro.evento().name());
+        }
+        if (filtro.resultado() != null) {
+            condiciones.add("resultado = :resultado");
+            params.addValue("resultado", filtro.resultado().name());
+        }
+        if (filtro.sitio() != null) {
+            condiciones.add("sitio = :sitio");
+            params.addValue("sitio", filtro.sitio().name());
+        }
+        if (filtro.rol() != null) {
+            condiciones.add("rol = :rol");
+            params.addValue("rol", filtro.rol().name());
+        }
+        if (filtro.ip() != null && !filtro.ip().isBlank()) {
+            condiciones.add("ip = :ip");
+            params.addValue("ip", filtro.ip().trim());
+        }
+        if (filtro.correo() != null && !filtro.correo().isBlank()) {
+            String prefijo = filtro.correo().trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            condiciones.add("correo_normalizado LIKE :correo");
+            params.addValue("correo", prefijo + "%");
+        }
+        if (filtro.desde() != null) {
+            condiciones.add(columnaFecha + " >= :desde");
+            params.addValue("desde", new Timestamp(filtro.desde().getTime()));
+        }
+        if (filtro.hasta() != null) {
+            condiciones.add(columnaFecha + " < :hasta");
+            params.addValue("hasta", new Timestamp(filtro.hasta().getTime()));
+        }
+
+        String sql = "SELECT " + String.join(", ", columnas) + " FROM " + tabla
+                + (condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones))
+                + " ORDER BY " + columnaFecha + " DESC, id DESC";
+
+        int total = columnas.size();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            Object[] fila = new Object[total];
+            for (int i = 0; i < total; i++) {
+                fila[i] = rs.getObject(i + 1);
+            }
+            consumidor.accept(fila);
+        });
+    }
+}
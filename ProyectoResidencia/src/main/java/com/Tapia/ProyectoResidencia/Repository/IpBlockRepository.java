@@ -3,8 +3,11 @@ package com.Tapia.ProyectoResidencia.Repository;
 import com.Tapia.ProyectoResidencia.Model.IpBlock;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface IpBlockRepository extends JpaRepository<IpBlock, Long> {
     Optional<IpBlock> findByIp(String ip);
+    List<IpBlock> findByBloqueadaHastaAfter(Date fecha);
 }
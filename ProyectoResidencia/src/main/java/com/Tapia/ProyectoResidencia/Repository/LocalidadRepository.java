@@ -3,6 +3,7 @@ package com.Tapia.ProyectoResidencia.Repository;
 import com.Tapia.ProyectoResidencia.Model.Localidad;
 import com.Tapia.ProyectoResidencia.Model.Municipio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +19,8 @@ public interface LocalidadRepository extends JpaRepository<Localidad, Long> {
     boolean existsByMunicipioAndNombreAndIdNot(Municipio municipio, String nombre, Long id);
 
     List<Localidad> findByMunicipio_Id(String municipioId);
+
+    // Todas las localidades con su municipio en una sola consulta (índice de autocompletado)
+    @Query("SELECT l FROM Localidad l JOIN FETCH l.municipio")
+    List<Localidad> findAllConMunicipio();
 }
@@ -0,0 +1,47 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import com.Tapia.ProyectoResidencia.DTO.LogCursor;
+import com.Tapia.ProyectoResidencia.DTO.LogFiltro;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Filtros compartidos por LoginLog y SystemLog (mismos nombres de atributo). Solo se agregan los
+// predicados presentes para que MySQL pueda elegir el índice (columna, fechaActividad) adecuado
+public final class LogSpecifications {
+
+    private LogSpecifications() {
+    }
+
+    public static <T> Specification<T> filtrar(LogFiltro filtro, LogCursor cursor) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+
+            if (filtro.evento() != null) predicados.add(cb.equal(root.get("tipoEvento"), filtro.evento()));
+            if (filtro.resultado() != null) predicados.add(cb.equal(root.get("resultado"), filtro.resultado()));
+            if (filtro.sitio() != null) predicados.add(cb.equal(root.get("sitio"), filtro.sitio()));
+            if (filtro.rol() != null) predicados.add(cb.equal(root.get("rol"), filtro.rol()));
+            if (filtro.ip() != null && !filtro.ip().isBlank()) predicados.add(cb.equal(root.get("ip"), filtro.ip().trim()));
+            if (filtro.correo() != null && !filtro.correo().isBlank()) {
+                // LIKE 'prefijo%' sobre la columna normalizada: usa el índice, a diferencia de LOWER(correo) LIKE '%x%'
+                String prefijo = filtro.correo().trim().toLowerCase(Locale.ROOT)
+                        .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                predicados.add(cb.like(root.get("correoNormalizado"), prefijo + "%", '\\'));
+            }
+            if (filtro.desde() != null) predicados.add(cb.greaterThanOrEqualTo(root.get("fechaActividad"), filtro.desde()));
+            if (filtro.hasta() != null) predicados.add(cb.lessThan(root.get("fechaActividad"), filtro.hasta()));
+
+            if (cursor != null) {
+                predicados.add(cb.or(
+                        cb.lessThan(root.get("fechaActividad"), cursor.fecha()),
+                        cb.and(cb.equal(root.get("fechaActividad"), cursor.fecha()),
+                                cb.lessThan(root.get("id"), cursor.id()))
+                ));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,15 +1,27 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
-import com.Tapia.ProyectoResidencia.Enum.Evento;
 import com.Tapia.ProyectoResidencia.Model.LoginLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
-public interface LoginLogRepository extends JpaRepository<LoginLog, Long> {
-    Page<LoginLog> findAllByOrderByFechaActividadDesc(Pageable pageable);
-    Page<LoginLog> findByTipoEventoOrderByFechaActividadDesc(Evento evento, Pageable pageable);
-    Page<LoginLog> findByCorreoContainingIgnoreCaseOrderByFechaActividadDesc(String correo, Pageable pageable);
+public interface LoginLogRepository extends JpaRepository<LoginLog, Long>, JpaSpecificationExecutor<LoginLog> {
+
+    // Keyset: primera página y páginas siguientes a partir de (fechaActividad, id), sin COUNT
+    @Query("SELECT l FROM LoginLog l ORDER BY l.fechaActividad DESC, l.id DESC")
+    List<LoginLog> findPrimeraPagina(Pageable limite);
+
+    @Query("""
+            SELECT l FROM LoginLog l
+            WHERE l.fechaActividad < :fecha OR (l.fechaActividad = :fecha AND l.id < :id)
+            ORDER BY l.fechaActividad DESC, l.id DESC
+            """)
+    List<LoginLog> findPaginaDespuesDe(@Param("fecha") Date fecha, @Param("id") Long id, Pageable limite);
 }
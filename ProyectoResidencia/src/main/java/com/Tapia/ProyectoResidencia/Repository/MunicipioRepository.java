@@ -2,7 +2,9 @@ package com.Tapia.ProyectoResidencia.Repository;
 
 import com.Tapia.ProyectoResidencia.Model.Municipio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MunicipioRepository extends JpaRepository<Municipio, String> {
@@ -12,4 +14,8 @@ public interface MunicipioRepository extends JpaRepository<Municipio, String> {
     boolean existsByNombre(String nombre);
 
     boolean existsByNombreAndIdNot(String nombre, String id);
+
+    // Municipios con sus localidades en una sola consulta (el JSON del catálogo las incluye)
+    @Query("SELECT DISTINCT m FROM Municipio m LEFT JOIN FETCH m.localidades ORDER BY m.id")
+    List<Municipio> findAllConLocalidades();
 }
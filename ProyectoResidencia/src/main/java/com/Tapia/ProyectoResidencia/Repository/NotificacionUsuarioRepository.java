@@ -1,10 +1,19 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.DTO.NotificacionResumen;
 import com.Tapia.ProyectoResidencia.Enum.NotificationTemplate;
+import com.Tapia.ProyectoResidencia.Enum.TipoNotificacion;
 import com.Tapia.ProyectoResidencia.Model.NotificacionUsuario;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +37,101 @@ public interface NotificacionUsuarioRepository extends JpaRepository<Notificacio
     //List<NotificacionUsuario> findByUsuarioAndLeidaFalse(Usuario usuario);
 
     Optional<NotificacionUsuario> findByIdAndUsuario(Long id, Usuario usuario);
+
+    boolean existsByUsuarioIdAndNotificacion_Template(Long usuarioId, NotificationTemplate template);
+
+    long countByUsuarioIdAndLeidaFalse(Long usuarioId);
+
+    // Listado por cursor (fechaRecepcion, id) proyectado a DTO
+    @Query("""
+            SELECT new com.Tapia.ProyectoResidencia.DTO.NotificacionResumen(
+                   nu.id, n.titulo, n.mensaje, n.tipo, nu.leida, nu.fechaRecepcion)
+            FROM NotificacionUsuario nu JOIN nu.notificacion n
+            WHERE nu.usuario.id = :usuarioId
+              AND (:soloNoLeidas = false OR nu.leida = false)
+            ORDER BY nu.fechaRecepcion DESC, nu.id DESC
+            """)
+    List<NotificacionResumen> findResumenPrimeraPagina(@Param("usuarioId") Long usuarioId,
+                                                       @Param("soloNoLeidas") boolean soloNoLeidas,
+                                                       Pageable limite);
+
+    @Query("""
+            SELECT new com.Tapia.ProyectoResidencia.DTO.NotificacionResumen(
+                   nu.id, n.titulo, n.mensaje, n.tipo, nu.leida, nu.fechaRecepcion)
+            FROM NotificacionUsuario nu JOIN nu.notificacion n
+            WHERE nu.usuario.id = :usuarioId
+              AND (:soloNoLeidas = false OR nu.leida = false)
+              AND (nu.fechaRecepcion < :fecha OR (nu.fechaRecepcion = :fecha AND nu.id < :id))
+            ORDER BY nu.fechaRecepcion DESC, nu.id DESC
+            """)
+    List<NotificacionResumen> findResumenDespuesDe(@Param("usuarioId") Long usuarioId,
+                                                   @Param("soloNoLeidas") boolean soloNoLeidas,
+                                                   @Param("fecha") LocalDateTime fecha,
+                                                   @Param("id") Long id,
+                                                   Pageable limite);
+
+    // Operaciones masivas: un solo UPDATE/DELETE por petición, acotado siempre al usuario dueño
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE NotificacionUsuario nu SET nu.leida = true, nu.fechaLectura = :ahora
+            WHERE nu.usuario.id = :usuarioId AND nu.leida = false
+            """)
+    int marcarTodasLeidas(@Param("usuarioId") Long usuarioId, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE NotificacionUsuario nu SET nu.leida = true, nu.fechaLectura = :ahora
+            WHERE nu.usuario.id = :usuarioId AND nu.leida = false AND nu.id IN :ids
+            """)
+    int marcarLeidas(@Param("usuarioId") Long usuarioId,
+                     @Param("ids") Collection<Long> ids,
+                     @Param("ahora") LocalDateTime ahora);
+
+    // Resolver equivale a quitar la relación: la notificación compartida de la plantilla se conserva
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            DELETE FROM NotificacionUsuario nu
+            WHERE nu.usuario.id = :usuarioId AND nu.resuelta = false
+              AND nu.notificacion.id IN (SELECT n.id FROM Notification n WHERE n.template = :template)
+            """)
+    int resolverPorTemplate(@Param("usuarioId") Long usuarioId, @Param("template") NotificationTemplate template);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            DELETE FROM NotificacionUsuario nu
+            WHERE nu.usuario.id = :usuarioId
+              AND nu.notificacion.id IN (SELECT n.id FROM Notification n WHERE n.tipo = :tipo)
+            """)
+    int eliminarPorUsuarioYTipo(@Param("usuarioId") Long usuarioId, @Param("tipo") TipoNotificacion tipo);
+
+    // De los usuarios indicados, cuáles recibieron la notificación
+    @Query("SELECT nu.usuario.id FROM NotificacionUsuario nu WHERE nu.notificacion.id = :notificacionId AND nu.usuario.id IN :usuarioIds")
+    List<Long> findUsuarioIdsConNotificacion(@Param("notificacionId") Long notificacionId,
+                                             @Param("usuarioIds") Collection<Long> usuarioIds);
+
+    // Entrega directa al buzón del usuario: un solo INSERT, sin cargar Notification.destinatarios.
+    // La restricción única (notificacion_id, usuario_id) hace que una entrega repetida no inserte nada
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO notificacion_usuario (notificacion_id, usuario_id, leida, resuelta, fecha_recepcion)
+            VALUES (:notificacionId, :usuarioId, false, false, NOW())
+            """, nativeQuery = true)
+    int entregar(@Param("notificacionId") Long notificacionId, @Param("usuarioId") Long usuarioId);
+
+    // Difusión por bloques de id: INSERT ... SELECT de los usuarios del rango que cumplen rol/status
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO notificacion_usuario (notificacion_id, usuario_id, leida, resuelta, fecha_recepcion)
+            SELECT :notificacionId, u.id, false, false, NOW()
+            FROM usuarios u
+            WHERE u.id > :desde AND u.id <= :hasta
+              AND (:rol IS NULL OR u.rol = :rol)
+              AND (:status IS NULL OR u.status = :status)
+            """, nativeQuery = true)
+    int entregarARango(@Param("notificacionId") Long notificacionId,
+                       @Param("desde") long desde,
+                       @Param("hasta") long hasta,
+                       @Param("rol") String rol,
+                       @Param("status") String status);
 }
@@ -4,11 +4,23 @@ import com.Tapia.ProyectoResidencia.Enum.NotificationTemplate;
 import com.Tapia.ProyectoResidencia.Model.Notification;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     boolean existsByTemplateAndDestinatarios_Usuario(NotificationTemplate template, Usuario usuario);
     void deleteByTemplateAndDestinatarios_Usuario(NotificationTemplate template, Usuario usuario);
     Optional<Notification> findByTemplate(NotificationTemplate template);
+
+    // Solo el id de la notificación compartida de la plantilla, sin hidratar la entidad
+    @Query("SELECT n.id FROM Notification n WHERE n.template = :template ORDER BY n.id")
+    List<Long> findIdsByTemplate(@Param("template") NotificationTemplate template);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.emisor = null WHERE n.emisor.id = :usuarioId")
+    int desvincularEmisor(@Param("usuarioId") Long usuarioId);
 }
@@ -0,0 +1,185 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+// Clonación de la estructura de un año a otro con INSERT ... SELECT. Zores y Ares se emparejan entre años
+// por numeración, asignaciones por el par (Zore, Are) y secciones por número. Cada sentencia omite lo que ya
+// existe en el destino, así que repetir una etapa interrumpida solo inserta lo que faltó.
+// tabla siempre es "zores" o "ares", nunca entrada del usuario
+@Repository
+@RequiredArgsConstructor
+public class RolloverJdbcRepository {
+
+    private static final String CLONAR_ASIGNACIONES = """
+            INSERT INTO asignaciones_zore_are (anio, zore_id, are_id)
+            SELECT :destino, zd.id, ad.id
+            FROM asignaciones_zore_are az
+            JOIN zores zo ON zo.id = az.zore_id
+            JOIN ares ao ON ao.id = az.are_id
+            JOIN zores zd ON zd.anio = :destino AND zd.numeracion = zo.numeracion
+            JOIN ares ad ON ad.anio = :destino AND ad.numeracion = ao.numeracion
+            WHERE az.anio = :origen
+              AND NOT EXISTS (SELECT 1 FROM asignaciones_zore_are x WHERE x.are_id = ad.id AND x.anio = :destino)
+            """;
+
+    // Las Are del destino ya asignadas a otra Zore: sus secciones no tendrían a qué asignación apuntar
+    private static final String ASIGNACIONES_DIFERENTES = """
+            SELECT ao.numeracion AS are, zo.numeracion AS zore_origen, zx.numeracion AS zore_destino
+            FROM asignaciones_zore_are az
+            JOIN zores zo ON zo.id = az.zore_id
+            JOIN ares ao ON ao.id = az.are_id
+            JOIN ares ax ON ax.anio = :destino AND ax.numeracion = ao.numeracion
+            JOIN asignaciones_zore_are x ON x.are_id = ax.id AND x.anio = :destino
+            JOIN zores zx ON zx.id = x.zore_id
+            WHERE az.anio = :origen AND zx.numeracion <> zo.numeracion
+            ORDER BY ao.numeracion
+            """;
+
+    private static final String CONTAR_ASIGNACIONES_PENDIENTES = """
+            SELECT COUNT(*) FROM asignaciones_zore_are az
+            JOIN ares ao ON ao.id = az.are_id
+            WHERE az.anio = :origen
+              AND NOT EXISTS (SELECT 1 FROM asignaciones_zore_are x
+                              JOIN ares ax ON ax.id = x.are_id
+                              WHERE x.anio = :destino AND ax.numeracion = ao.numeracion)
+            """;
+
+    private static final String CLONAR_SECCIONES = """
+            INSERT INTO secciones (numero_seccion, anio, asignacion_zore_are_id)
+            SELECT s.numero_seccion, :destino, azd.id
+            FROM secciones s
+            JOIN asignaciones_zore_are azo ON azo.id = s.asignacion_zore_are_id
+            JOIN zores zo ON zo.id = azo.zore_id
+            JOIN ares ao ON ao.id = azo.are_id
+            JOIN zores zd ON zd.anio = :destino AND zd.numeracion = zo.numeracion
+            JOIN ares ad ON ad.anio = :destino AND ad.numeracion = ao.numeracion
+            JOIN asignaciones_zore_are azd ON azd.zore_id = zd.id AND azd.are_id = ad.id
+            WHERE s.anio = :origen AND s.id BETWEEN :desde AND :hasta
+              AND NOT EXISTS (SELECT 1 FROM secciones d WHERE d.anio = :destino AND d.numero_seccion = s.numero_seccion)
+            """;
+
+    // Solo secciones destino sin localidades: no se mezclan con las que un admin ya capturó a mano
+    private static final String CLONAR_SECCION_LOCALIDAD = """
+            INSERT INTO seccion_localidad (seccion_id, localidad_id)
+            SELECT sd.id, sl.localidad_id
+            FROM secciones s
+            JOIN seccion_localidad sl ON sl.seccion_id = s.id
+            JOIN secciones sd ON sd.anio = :destino AND sd.numero_seccion = s.numero_seccion
+            WHERE s.anio = :origen AND s.id BETWEEN :desde AND :hasta
+              AND NOT EXISTS (SELECT 1 FROM seccion_localidad x WHERE x.seccion_id = sd.id)
+            """;
+
+    private static final String CONTAR_SECCIONES_PENDIENTES = """
+            SELECT COUNT(*) FROM secciones s
+            WHERE s.anio = :origen
+              AND NOT EXISTS (SELECT 1 FROM secciones d WHERE d.anio = :destino AND d.numero_seccion = s.numero_seccion)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Zore/Are del origen cuya numeración aún no existe en el destino, con su responsable actual
+    public record Responsable(int numeracion, Long usuarioId) {}
+
+    public long contarEnAnio(String tabla, String anio) {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE anio = :anio",
+                Map.of("anio", anio), Long.class);
+        return total != null ? total : 0;
+    }
+
+    public List<Responsable> findResponsablesPendientes(String tabla, String origen, String destino) {
+        return jdbcTemplate.query("SELECT o.numeracion, o.usuario_id FROM " + tabla + " o WHERE o.anio = :origen"
+                        + " AND NOT EXISTS (SELECT 1 FROM " + tabla + " d WHERE d.anio = :destino AND d.numeracion = o.numeracion)"
+                        + " ORDER BY o.numeracion",
+                Map.of("origen", origen, "destino", destino),
+                (rs, i) -> new Responsable(rs.getInt("numeracion"), rs.getLong("usuario_id")));
+    }
+
+    public Set<Long> findResponsablesEnAnio(String tabla, String anio) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT usuario_id FROM " + tabla + " WHERE anio = :anio",
+                Map.of("anio", anio), Long.class));
+    }
+
+    public Map<Long, Rol> findRoles(Collection<Long> ids) {
+        Map<Long, Rol> roles = new HashMap<>();
+        if (ids.isEmpty()) return roles;
+        jdbcTemplate.query("SELECT id, rol FROM usuarios WHERE id IN (:ids)", Map.of("ids", ids), rs -> {
+            roles.put(rs.getLong("id"), rs.getString("rol") != null ? Rol.valueOf(rs.getString("rol")) : null);
+        });
+        return roles;
+    }
+
+    public long contarAsignacionesPendientes(String origen, String destino) {
+        Long total = jdbcTemplate.queryForObject(CONTAR_ASIGNACIONES_PENDIENTES,
+                Map.of("origen", origen, "destino", destino), Long.class);
+        return total != null ? total : 0;
+    }
+
+    public List<String> findAsignacionesDiferentes(String origen, String destino) {
+        return jdbcTemplate.query(ASIGNACIONES_DIFERENTES, Map.of("origen", origen, "destino", destino),
+                (rs, i) -> "La Are " + rs.getInt("are") + " ya está asignada a la Zore " + rs.getInt("zore_destino")
+                        + " en " + destino + " (en " + origen + " pertenece a la Zore " + rs.getInt("zore_origen") + ")");
+    }
+
+    public long contarSeccionesPendientes(String origen, String destino) {
+        Long total = jdbcTemplate.queryForObject(CONTAR_SECCIONES_PENDIENTES,
+                Map.of("origen", origen, "destino", destino), Long.class);
+        return total != null ? total : 0;
+    }
+
+    // Mínimo y máximo id de las secciones del origen, para recorrerlas por bloques; vacío si no hay
+    public Optional<long[]> findRangoSecciones(String origen) {
+        Map<String, Object> rango = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS minimo, MAX(id) AS maximo FROM secciones WHERE anio = :origen", Map.of("origen", origen));
+        if (rango.get("minimo") == null) return Optional.empty();
+        return Optional.of(new long[]{((Number) rango.get("minimo")).longValue(), ((Number) rango.get("maximo")).longValue()});
+    }
+
+    @Transactional
+    public int clonarResponsables(String tabla, String origen, String destino, Map<Long, Long> reasignaciones) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("origen", origen)
+                .addValue("destino", destino);
+        String sql = "INSERT INTO " + tabla + " (numeracion, anio, usuario_id)"
+                + " SELECT o.numeracion, :destino, " + responsable("o.usuario_id", reasignaciones, params)
+                + " FROM " + tabla + " o WHERE o.anio = :origen"
+                + " AND NOT EXISTS (SELECT 1 FROM " + tabla + " d WHERE d.anio = :destino AND d.numeracion = o.numeracion)";
+        return jdbcTemplate.update(sql, params);
+    }
+
+    @Transactional
+    public int clonarAsignaciones(String origen, String destino) {
+        return jdbcTemplate.update(CLONAR_ASIGNACIONES, Map.of("origen", origen, "destino", destino));
+    }
+
+    // Secciones y sus localidades del bloque de ids [desde, hasta] en la misma transacción. Devuelve solo
+    // las secciones, la misma unidad que cuenta la validación; las filas de seccion_localidad no se suman
+    @Transactional
+    public int clonarSecciones(String origen, String destino, long desde, long hasta) {
+        Map<String, Object> params = Map.of("origen", origen, "destino", destino, "desde", desde, "hasta", hasta);
+        int secciones = jdbcTemplate.update(CLONAR_SECCIONES, params);
+        jdbcTemplate.update(CLONAR_SECCION_LOCALIDAD, params);
+        return secciones;
+    }
+
+    // CASE usuario_id WHEN origen THEN destino ... ELSE usuario_id END
+    private static String responsable(String columna, Map<Long, Long> reasignaciones, MapSqlParameterSource params) {
+        if (reasignaciones.isEmpty()) return columna;
+
+        StringBuilder sql = new StringBuilder("CASE ").append(columna);
+        int i = 0;
+        for (Map.Entry<Long, Long> r : reasignaciones.entrySet()) {
+            sql.append(" WHEN :actual").append(i).append(" THEN :nuevo").append(i);
+            params.addValue("actual" + i, r.getKey());
+            params.addValue("nuevo" + i, r.getValue());
+            i++;
+        }
+        return sql.append(" ELSE ").append(columna).append(" END").toString();
+    }
+}
@@ -1,12 +1,41 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Model.Seccion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SeccionRepository extends JpaRepository<Seccion, Long> {
 
     boolean existsByNumeroSeccionAndAnioAndAsignacionZoreAre_Id(String numeroSeccion, String anio,Long asignacionZoreAreId);
     boolean existsByNumeroSeccionAndAnioAndAsignacionZoreAre_IdAndIdNot(String numeroSeccion, String anio, Long asignacionZoreAreId, Long id);
+
+    // Página con asignación, Zore, Are y sus responsables en un solo JOIN (las localidades van aparte:
+    // traer una colección en la misma consulta obligaría a paginar en memoria)
+    @EntityGraph(attributePaths = {"asignacionZoreAre.zore.usuario", "asignacionZoreAre.are.usuario"})
+    @Query(value = "SELECT s FROM Seccion s", countQuery = "SELECT COUNT(s) FROM Seccion s")
+    Page<Seccion> findPaginaConAsignacion(Pageable pageable);
+
+    // Inicializa localidades y municipio de las secciones ya cargadas en la transacción
+    @EntityGraph(attributePaths = {"localidades.municipio"})
+    @Query("SELECT s FROM Seccion s WHERE s.id IN :ids")
+    List<Seccion> findConLocalidadesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Listado completo en una sola consulta
+    @EntityGraph(attributePaths = {"asignacionZoreAre.zore.usuario", "asignacionZoreAre.are.usuario", "localidades.municipio"})
+    @Query("SELECT s FROM Seccion s ORDER BY s.id")
+    List<Seccion> findAllConDetalle();
+
+    // Un renglón por año (con el id más antiguo de ese año), resuelto sobre el índice de anio
+    @Query("SELECT new com.Tapia.ProyectoResidencia.DTO.IdAnioDTO(MIN(x.id), x.anio) FROM Seccion x GROUP BY x.anio ORDER BY MIN(x.id)")
+    List<IdAnioDTO> findAniosDistintos();
 }
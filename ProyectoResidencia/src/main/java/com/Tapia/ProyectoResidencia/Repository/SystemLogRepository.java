@@ -1,17 +1,27 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
-import com.Tapia.ProyectoResidencia.Enum.Evento;
-import com.Tapia.ProyectoResidencia.Enum.Resultado;
 import com.Tapia.ProyectoResidencia.Model.SystemLog;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
-public interface SystemLogRepository extends JpaRepository<SystemLog, Integer> {
-    Page<SystemLog> findAllByOrderByFechaActividadDesc(Pageable pageable);
-    Page<SystemLog> findByCorreoContainingIgnoreCaseOrderByFechaActividadDesc(String correo, Pageable pageable);
-    Page<SystemLog> findByTipoEventoOrderByFechaActividadDesc(Evento tipoEvento, Pageable pageable);
-    Page<SystemLog> findByResultadoOrderByFechaActividadDesc(Resultado resultado, Pageable pageable);
+public interface SystemLogRepository extends JpaRepository<SystemLog, Integer>, JpaSpecificationExecutor<SystemLog> {
+
+    // Keyset: primera página y páginas siguientes a partir de (fechaActividad, id), sin COUNT
+    @Query("SELECT s FROM SystemLog s ORDER BY s.fechaActividad DESC, s.id DESC")
+    List<SystemLog> findPrimeraPagina(Pageable limite);
+
+    @Query("""
+            SELECT s FROM SystemLog s
+            WHERE s.fechaActividad < :fecha OR (s.fechaActividad = :fecha AND s.id < :id)
+            ORDER BY s.fechaActividad DESC, s.id DESC
+            """)
+    List<SystemLog> findPaginaDespuesDe(@Param("fecha") Date fecha, @Param("id") Long id, Pageable limite);
 }
@@ -0,0 +1,96 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+// Baja de usuarios INACTIVOS por conjuntos: respalda en usuarios_eliminados y re-apunta las referencias
+// con un UPDATE por tabla (subconsulta sobre id_original), sin cargar relaciones en memoria. El número de
+// sentencias no depende de cuántas notificaciones o contratos tenga cada usuario
+@Repository
+@RequiredArgsConstructor
+public class UsuarioBajaJdbcRepository {
+
+    // Zores y Ares exigen responsable: esos usuarios se omiten en lugar de romper el bloque entero
+    private static final String SELECCIONAR_CANDIDATOS = """
+            SELECT u.id, u.correo FROM usuarios u
+            WHERE u.id IN (:ids) AND u.status = 'INACTIVO'
+              AND NOT EXISTS (SELECT 1 FROM zores z WHERE z.usuario_id = u.id)
+              AND NOT EXISTS (SELECT 1 FROM ares a WHERE a.usuario_id = u.id)
+            FOR UPDATE
+            """;
+
+    private static final String RESPALDAR = """
+            INSERT INTO usuarios_eliminados (id_original, correo, nombre, apellido_paterno, apellido_materno, fecha_creacion, fecha_eliminacion)
+            SELECT u.id, u.correo, u.nombre, u.apellido_paterno, u.apellido_materno, u.fecha_registro, NOW()
+            FROM usuarios u WHERE u.id IN (:ids)
+            """;
+
+    private static final String ELIMINAR_RELACIONES_SISTEMA = """
+            DELETE FROM notificacion_usuario
+            WHERE usuario_id IN (:ids)
+              AND notificacion_id IN (SELECT n.id FROM notificaciones n WHERE n.tipo = 'SISTEMA')
+            """;
+
+    // MySQL asigna el SET de izquierda a derecha: el respaldo se busca antes de anular la columna original
+    private static final String REDIRIGIR_RELACIONES = """
+            UPDATE notificacion_usuario
+            SET usuario_eliminado_id = (SELECT MAX(ue.id) FROM usuarios_eliminados ue
+                                        WHERE ue.id_original = notificacion_usuario.usuario_id),
+                usuario_id = NULL
+            WHERE usuario_id IN (:ids)
+            """;
+
+    private static final String REDIRIGIR_EMISOR = """
+            UPDATE notificaciones
+            SET emisor_eliminado_id = (SELECT MAX(ue.id) FROM usuarios_eliminados ue
+                                       WHERE ue.id_original = notificaciones.emisor_id),
+                emisor_id = NULL
+            WHERE emisor_id IN (:ids)
+            """;
+
+    private static final String REDIRIGIR_CONTRATOS = """
+            UPDATE usuario_contratos
+            SET usuario_eliminado_id = (SELECT MAX(ue.id) FROM usuarios_eliminados ue
+                                        WHERE ue.id_original = usuario_contratos.usuario_id),
+                usuario_id = NULL
+            WHERE usuario_id IN (:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Se une a la transacción del llamador si existe; si no, cada bloque confirma por separado.
+    // Devuelve los correos eliminados para invalidar cachés y tokens después
+    @Transactional
+    public List<String> archivarYEliminar(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        List<Map<String, Object>> candidatos = jdbcTemplate.queryForList(SELECCIONAR_CANDIDATOS, Map.of("ids", ids));
+        if (candidatos.isEmpty()) return List.of();
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                candidatos.stream().map(c -> ((Number) c.get("id")).longValue()).toList());
+
+        jdbcTemplate.update(RESPALDAR, params);
+        jdbcTemplate.update(ELIMINAR_RELACIONES_SISTEMA, params);
+        jdbcTemplate.update(REDIRIGIR_RELACIONES, params);
+        jdbcTemplate.update(REDIRIGIR_EMISOR, params);
+        jdbcTemplate.update(REDIRIGIR_CONTRATOS, params);
+        jdbcTemplate.update("DELETE FROM password_reset_tokens WHERE usuario_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM account_blocks WHERE usuario_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM usuarios WHERE id IN (:ids)", params);
+
+        return candidatos.stream().map(c -> (String) c.get("correo")).toList();
+    }
+
+    public List<Long> findIdsInactivosDespuesDe(long desde, int lote) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM usuarios WHERE status = 'INACTIVO' AND id > :desde ORDER BY id LIMIT :lote",
+                Map.of("desde", desde, "lote", lote), Long.class);
+    }
+}
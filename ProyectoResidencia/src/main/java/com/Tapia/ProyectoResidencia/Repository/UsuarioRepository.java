@@ -7,6 +7,8 @@ import com.Tapia.ProyectoResidencia.Model.Usuario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,4 +29,14 @@ public interface UsuarioRepository extends JpaRepository<Usuario,Long> {
     Page<Usuario> findByStatus(Status status, Pageable pageable);
 
     List<Usuario> findByStatus(Status status);
+
+    // Criterio de difusión: rol y/o status (los nulos no filtran)
+    @Query("""
+            SELECT COUNT(u) FROM Usuario u
+            WHERE (:rol IS NULL OR u.rol = :rol) AND (:status IS NULL OR u.status = :status)
+            """)
+    long contarPorRolYStatus(@Param("rol") Rol rol, @Param("status") Status status);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM Usuario u")
+    long findMaxId();
 }
@@ -1,8 +1,10 @@
 package com.Tapia.ProyectoResidencia.Repository;
 
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Model.Zore;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +21,8 @@ public interface ZoreRepository extends JpaRepository<Zore, Long> {
 
     // Listar todas las ZORE de un año específico
     List<Zore> findByAnio(String anio);
+
+    // Un renglón por año (con el id más antiguo de ese año), resuelto sobre el índice de anio
+    @Query("SELECT new com.Tapia.ProyectoResidencia.DTO.IdAnioDTO(MIN(x.id), x.anio) FROM Zore x GROUP BY x.anio ORDER BY MIN(x.id)")
+    List<IdAnioDTO> findAniosDistintos();
 }
@@ -1,10 +1,12 @@
 package com.Tapia.ProyectoResidencia.Security;
 
+import com.Tapia.ProyectoResidencia.DTO.JwtClaims;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
 import com.Tapia.ProyectoResidencia.Enum.Resultado;
 import com.Tapia.ProyectoResidencia.Enum.Sitio;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Repository.UsuarioRepository;
+import com.Tapia.ProyectoResidencia.Service.JwtRevocationService;
 import com.Tapia.ProyectoResidencia.Service.LoginLogService;
 import com.Tapia.ProyectoResidencia.Utils.IpUtils;
 import com.Tapia.ProyectoResidencia.Utils.JwtUtils;
@@ -13,9 +15,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -31,14 +35,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final UsuarioRepository usuarioRepository;
     private final LoginLogService loginLogService;
+    private final JwtRevocationService jwtRevocationService;
+    // Construir el principal desde los claims sin consultar la BD. Solo para una instancia:
+    // las revocaciones de JwtRevocationService no se comparten entre procesos
+    private final boolean stateless;
 
     public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService,
                                    UsuarioRepository usuarioRepository,
-                                   LoginLogService loginLogService) {
+                                   LoginLogService loginLogService,
+                                   JwtRevocationService jwtRevocationService,
+                                   @Value("${jwt.stateless:false}") boolean stateless) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
         this.usuarioRepository = usuarioRepository;
         this.loginLogService = loginLogService;
+        this.jwtRevocationService = jwtRevocationService;
+        this.stateless = stateless;
+        if (stateless) {
+            logger.warn("jwt.stateless=true: las revocaciones de tokens viven en memoria de esta instancia. "
+                    + "No habilitar con más de una instancia detrás de un balanceador.");
+        }
     }
 
     @Override
@@ -69,39 +85,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String token = authHeader.substring(7);
 
         try {
-            final String username = jwtUtils.extractUsername(token);
+            // 🔹 Un solo parseo: firma + expiración
+            final JwtClaims claims = jwtUtils.validateToken(token);
+            final String username = claims.correo();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtUtils.isTokenValid(token, username)) {
-                    UsernamePasswordAuthenticationToken authenticationToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    authenticationToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                } else {
-                    registrarTokenFallido(request, "Token inválido o expirado", ip);
-                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido o expirado");
-                    return;
-                }
+                UserDetails userDetails = cargarUsuario(claims);
+
+                UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+
+                authenticationToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
 
         } catch (ExpiredJwtException e) {
             logger.warn("Token expirado", e);
-            registrarTokenFallido(request, "Token expirado", ip);
+            // La firma ya fue verificada, el subject del token expirado es confiable
+            registrarTokenFallido(e.getClaims().getSubject(), "Token expirado", ip);
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expirado");
             return;
         } catch (Exception e) {
             logger.error("Error en autenticación JWT", e);
-            registrarTokenFallido(request, "JWT token inválido", ip);
+            registrarTokenFallido(null, "JWT token inválido", ip);
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token inválido");
             return;
         }
@@ -109,21 +122,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private void registrarTokenFallido(HttpServletRequest request, String descripcion, String ip) {
-        String token = request.getHeader("Authorization");
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
+    // En modo stateless se confía en el rol firmado mientras el usuario no haya sido modificado
+    // después de emitir el token; en cualquier otro caso se consulta la BD como siempre
+    private UserDetails cargarUsuario(JwtClaims claims) {
+        if (stateless && jwtRevocationService.esConfiable(claims)) {
+            return User.withUsername(claims.correo())
+                    .password("")
+                    .roles(claims.rol()) // Spring Security agrega automáticamente "ROLE_"
+                    .build();
         }
+        return userDetailsService.loadUserByUsername(claims.correo());
+    }
 
-        String username;
-        Usuario usuario;
-        try {
-            username = jwtUtils.extractUsername(token);
-            usuario = usuarioRepository.findByCorreo(username).orElse(null);
+    private void registrarTokenFallido(String username, String descripcion, String ip) {
+        Usuario usuario = username != null ? usuarioRepository.findByCorreo(username).orElse(null) : null;
+        if (usuario != null) {
             loginLogService.registrarLogsUsuario(usuario, Evento.TOKEN_ERROR_INTERNO_VALIDACION, Resultado.FALLO, Sitio.WEB, ip, descripcion);
-        } catch (Exception ignored) {
-            username = "Desconocido";
-            loginLogService.registrarLogsCorreo(username, Evento.TOKEN_ERROR_INTERNO_VALIDACION, Resultado.FALLO, Sitio.WEB, ip, descripcion);
+        } else {
+            loginLogService.registrarLogsCorreo("Desconocido", Evento.TOKEN_ERROR_INTERNO_VALIDACION, Resultado.FALLO, Sitio.WEB, ip, descripcion);
         }
     }
 }
@@ -3,6 +3,7 @@ package com.Tapia.ProyectoResidencia.Security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -35,6 +36,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
+                        // El controlador exige Bearer o un ticket de stream válido
+                        .requestMatchers(HttpMethod.GET, "/notifications/stream").permitAll()
                         .requestMatchers("/user/**").hasAnyRole("VOCAL", "ADMIN", "RRHH", "CAE", "SE", "USER")
                         .requestMatchers("/notifications/**").hasAnyRole("VOCAL", "ADMIN", "RRHH", "CAE", "SE", "USER")
                         .requestMatchers("/admin/**").hasAnyRole("ADMIN")
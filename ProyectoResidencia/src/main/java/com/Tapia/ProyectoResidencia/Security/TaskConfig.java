@@ -0,0 +1,64 @@
+package com.Tapia.ProyectoResidencia.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class TaskConfig {
+
+    // Los @Scheduled comparten este pool. Con el hilo único por defecto, un archivado largo de bitácoras
+    // detendría los heartbeats SSE, el barrido de correos y la purga de IPs
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.hilos:4}") int hilos) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(hilos);
+        scheduler.setThreadNamePrefix("tarea-");
+        return scheduler;
+    }
+
+    // Workers de la cola de correos. Si la cola en memoria se llena el correo queda PENDIENTE en BD
+    // y lo recoge el barrido programado. Al cerrar se termina lo encolado durante 10 s; lo que quede
+    // sigue PENDIENTE y se envía en el siguiente arranque
+    @Bean
+    public ThreadPoolTaskExecutor emailExecutor(@Value("${app.mail.workers:2}") int workers,
+                                                @Value("${app.mail.capacidad-cola:500}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = pool(workers, capacidadCola, "email-worker-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // Envíos SSE. Con la cola llena se rechaza y la conexión se cierra para que el navegador se reconecte
+    @Bean
+    public ThreadPoolTaskExecutor sseEnvioExecutor(@Value("${app.sse.hilos-envio:4}") int hilos,
+                                                   @Value("${app.sse.cola-envio:1000}") int cola) {
+        return pool(hilos, cola, "sse-envio-");
+    }
+
+    // Difusiones y rollovers corren de una en una; las pendientes esperan en una cola corta
+    @Bean
+    public ThreadPoolTaskExecutor difusionExecutor(@Value("${app.difusion.max-pendientes:10}") int maxPendientes) {
+        return pool(1, maxPendientes, "notificacion-difusion-");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor rolloverExecutor() {
+        return pool(1, 5, "rollover-estructura-");
+    }
+
+    private static ThreadPoolTaskExecutor pool(int hilos, int cola, String prefijo) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix(prefijo);
+        executor.setDaemon(true);
+        return executor;
+    }
+}
@@ -1,16 +1,54 @@
 package com.Tapia.ProyectoResidencia.Security;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 @Configuration
 public class WebConfig {
 
+    private static final Logger logger = Logger.getLogger(WebConfig.class.getName());
+
+    // Las descargas en streaming (StreamingResponseBody) se escriben en este pool y no en el ejecutor
+    // por defecto, que crea un hilo por petición. El timeout cubre exportaciones largas
+    @Value("${app.exportacion.timeout-ms:600000}")
+    private long timeoutExportacion;
+
+    @Value("${app.exportacion.hilos:4}")
+    private int hilosExportacion;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximoConexiones;
+
+    // Cada exportación retiene una conexión del pool mientras el cliente descarga (cursor en streaming),
+    // así que un cliente lento la ocupa minutos. Los hilos se limitan a la mitad del pool para que
+    // las exportaciones simultáneas no dejen sin conexiones al resto de las peticiones
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        int hilos = Math.min(hilosExportacion, Math.max(1, maximoConexiones / 2));
+        if (hilos < hilosExportacion) {
+            logger.log(Level.WARNING, "app.exportacion.hilos={0} excede la mitad del pool de conexiones ({1}); se usan {2}",
+                    new Object[]{hilosExportacion, maximoConexiones, hilos});
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("exportacion-");
+        return executor;
+    }
+
+    @Bean
+    public WebMvcConfigurer corsConfigurer(@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(@NonNull CorsRegistry registry) {
@@ -20,6 +58,12 @@ public class WebConfig {
                         .allowedHeaders("*")
                         .allowCredentials(true);
             }
+
+            @Override
+            public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(mvcAsyncExecutor);
+                configurer.setDefaultTimeout(timeoutExportacion);
+            }
         };
     }
 }
\ No newline at end of file
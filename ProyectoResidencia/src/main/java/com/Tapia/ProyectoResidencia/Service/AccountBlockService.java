@@ -1,22 +1,22 @@
 package com.Tapia.ProyectoResidencia.Service;
 
 import com.Tapia.ProyectoResidencia.Enum.Evento;
-import com.Tapia.ProyectoResidencia.Model.AccountBlock;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Repository.AccountBlockRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AccountBlockService {
 
     private final AccountBlockRepository accountBlockRepository;
+    private final AccountBlockTransactionalService accountBlockTransactionalService;
     private final EmailLogService emailLogService;
 
     // Parámetros configurables por evento
@@ -35,61 +35,37 @@ public class AccountBlockService {
                 .orElse(false);
     }
 
-    //Registra un intento fallido de login y bloquea si excede el límite
-    public void registrarIntentoFallido(Usuario usuario, Evento evento, String ip) {
-        AccountBlock bloqueo = accountBlockRepository
-                .findByUsuarioAndEvento(usuario, evento)
-                .orElseGet(() -> {
-                    AccountBlock nuevo = new AccountBlock();
-                    nuevo.setUsuario(usuario);
-                    nuevo.setEvento(evento);
-                    nuevo.setIntentosFallidos(0);
-                    nuevo.setIp(ip);
-                    return nuevo;
-                });
-
-        //Incrementar intentos acumulados
-        int nuevosIntentos = bloqueo.getIntentosFallidos() + 1;
-        bloqueo.setIntentosFallidos(nuevosIntentos);
+    //Verifica el bloqueo y, si no está vigente, lo limpia en la misma operación:
+    //con reiniciarIntentos (login exitoso) se reinicia el contador, si no solo se limpia un bloqueo expirado
+    public boolean verificarYLimpiar(Usuario usuario, Evento evento, boolean reiniciarIntentos) {
+        return accountBlockTransactionalService.verificarYLimpiar(usuario, evento, reiniciarIntentos);
+    }
 
-        //Retomar el límite de intentos según el evento
-        int limite = obtenerLimiteIntentos(evento);
+    //Registra un intento fallido y bloquea si excede el límite
+    public void registrarIntentoFallido(Usuario usuario, Evento evento, String ip) {
+        Date hasta = incrementar(usuario, evento, ip, obtenerLimiteIntentos(evento), BLOQUEO_MINUTOS * 60_000L);
 
-        //Comparar los intentos actuales vs. el límite de intentos
-        if (nuevosIntentos >= limite) {
-            //Si se ha superado el límite de intentos, bloquear la cuenta y registrar según el evento
-            Date hasta = new Date(System.currentTimeMillis() + BLOQUEO_MINUTOS * 60 * 1000);
-            bloqueo.setBloqueadaHasta(hasta);
-            accountBlockRepository.save(bloqueo);
-            // 👉 Notificación al usuario según el tipo de evento
+        if (hasta != null) {
+            // 👉 Notificación al usuario según el tipo de evento (fuera de la transacción del contador)
             emailLogService.notificarAdministradores(usuario, evento, hasta, ip);
             emailLogService.notificarUsuarios(usuario, evento, Date.from(Instant.now()), null);
-        } else {
-            accountBlockRepository.save(bloqueo);
         }
     }
 
     //Registra un cambio de contraseña exitoso
     //Controla la ventana de 24 h para limitar cambios excesivos
     public void registrarCambioPasswordExitoso(Usuario usuario, Evento evento, String ip) {
-        AccountBlock bloqueo = obtenerOBuild(usuario, evento, ip);
-        Date ahora = new Date();
-
-        if (bloqueo.getBloqueadaHasta() != null && bloqueo.getBloqueadaHasta().before(ahora)) {
-            bloqueo.setIntentosFallidos(0);
-            bloqueo.setBloqueadaHasta(null);
-        }
-
-        int cambios = bloqueo.getIntentosFallidos() + 1;
-        bloqueo.setIntentosFallidos(cambios);
+        Date hasta = incrementar(usuario, evento, ip, MAX_CAMBIOS_PASSWORD, VENTANA_HORAS * 3_600_000L);
 
-        if (cambios >= MAX_CAMBIOS_PASSWORD) {
-            bloqueo.setBloqueadaHasta(Date.from(Instant.now().plus(VENTANA_HORAS, ChronoUnit.HOURS)));
-            emailLogService.notificarAdministradores(usuario, Evento.PASSWORD_CHANGE_EXCESIVOS, bloqueo.getBloqueadaHasta(), ip);
+        if (hasta != null) {
+            emailLogService.notificarAdministradores(usuario, Evento.PASSWORD_CHANGE_EXCESIVOS, hasta, ip);
             emailLogService.notificarUsuarios(usuario, Evento.PASSWORD_CHANGE_EXCESIVOS, Date.from(Instant.now()), null);
         }
+    }
 
-        accountBlockRepository.save(bloqueo);
+    //Limpia el bloqueo de la cuenta (se usa en login exitoso o cuando expira)
+    public void limpiarBloqueo(Usuario usuario, Evento evento) {
+        accountBlockTransactionalService.limpiar(usuario, evento);
     }
 
     //Devuelve el límite de intentos según el tipo de evento
@@ -103,51 +79,13 @@ public class AccountBlockService {
         };
     }
 
-    //Limpia el bloqueo de la cuenta (se usa en login exitoso o cuando expira)
-    public void limpiarBloqueo(Usuario usuario, Evento evento) {
-        accountBlockRepository.findByUsuarioAndEvento(usuario, evento)
-                .ifPresent(bloqueo -> {
-                    bloqueo.setIntentosFallidos(0);
-                    bloqueo.setBloqueadaHasta(null);
-                    accountBlockRepository.save(bloqueo);
-                });
-    }
-
-    //Si la fecha de bloqueo ya expiró, limpia el registro
-    public void limpiarSiExpirado(Usuario usuario, Evento evento) {
-        accountBlockRepository.findByUsuarioAndEvento(usuario, evento)
-                .ifPresent(bloqueo -> {
-                    if (bloqueo.getBloqueadaHasta() != null &&
-                            bloqueo.getBloqueadaHasta().before(new Date())) {
-                        bloqueo.setIntentosFallidos(0);
-                        bloqueo.setBloqueadaHasta(null);
-                        accountBlockRepository.save(bloqueo);
-                    }
-                });
-    }
-
-    //Factor común para obtener o crear un registro de bloqueo
-    private AccountBlock obtenerOBuild(Usuario usuario, Evento evento, String ip) {
-        return accountBlockRepository.findByUsuarioAndEvento(usuario, evento)
-                .orElseGet(() -> {
-                    AccountBlock nuevo = new AccountBlock();
-                    nuevo.setUsuario(usuario);
-                    nuevo.setEvento(evento);
-                    nuevo.setIntentosFallidos(0);
-                    nuevo.setIp(ip);
-                    return nuevo;
-                });
-    }
-
-    public Optional<AccountBlock> obtenerBloqueoActivo(Usuario usuario, Evento evento) {
-        Optional<AccountBlock> bloqueoOpt = accountBlockRepository.findByUsuarioAndEvento(usuario, evento);
-        bloqueoOpt.ifPresent(bloqueo -> {
-            if (bloqueo.getBloqueadaHasta() != null && bloqueo.getBloqueadaHasta().before(new Date())) {
-                bloqueo.setIntentosFallidos(0);
-                bloqueo.setBloqueadaHasta(null);
-                accountBlockRepository.save(bloqueo);
-            }
-        });
-        return bloqueoOpt;
+    private Date incrementar(Usuario usuario, Evento evento, String ip, int limite, long duracionMs) {
+        try {
+            return accountBlockTransactionalService.incrementar(usuario, evento, ip, limite, duracionMs);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Dos primeros intentos simultáneos: sin fila, el candado pesimista toma gap locks y uno de los dos
+            // pierde por llave duplicada o por deadlock. El perdedor reintenta sobre la fila ya creada
+            return accountBlockTransactionalService.incrementar(usuario, evento, ip, limite, duracionMs);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Model.AccountBlock;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.AccountBlockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+// Cada operación corre en su propia transacción corta: el contador sobrevive al rollback
+// del negocio y el candado de fila no se mantiene mientras se envían correos
+@Service
+@RequiredArgsConstructor
+public class AccountBlockTransactionalService {
+
+    private final AccountBlockRepository accountBlockRepository;
+
+    // Una lectura con candado y una escritura. Devuelve la fecha de bloqueo si este intento bloqueó la cuenta
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Date incrementar(Usuario usuario, Evento evento, String ip, int limite, long duracionMs) {
+        Date ahora = new Date();
+        AccountBlock bloqueo = accountBlockRepository
+                .findWithLockByUsuarioAndEvento(usuario, evento)
+                .orElseGet(() -> {
+                    AccountBlock nuevo = new AccountBlock();
+                    nuevo.setUsuario(usuario);
+                    nuevo.setEvento(evento);
+                    nuevo.setIntentosFallidos(0);
+                    nuevo.setIp(ip);
+                    return nuevo;
+                });
+
+        // Un bloqueo vencido inicia una ventana nueva
+        if (bloqueo.getBloqueadaHasta() != null && !bloqueo.getBloqueadaHasta().after(ahora)) {
+            bloqueo.setIntentosFallidos(0);
+            bloqueo.setBloqueadaHasta(null);
+        }
+
+        boolean yaBloqueada = bloqueo.getBloqueadaHasta() != null;
+        bloqueo.setIntentosFallidos(bloqueo.getIntentosFallidos() + 1);
+
+        Date bloqueadaHasta = null;
+        if (!yaBloqueada && bloqueo.getIntentosFallidos() >= limite) {
+            bloqueadaHasta = new Date(ahora.getTime() + duracionMs);
+            bloqueo.setBloqueadaHasta(bloqueadaHasta);
+        }
+
+        accountBlockRepository.save(bloqueo);
+        return bloqueadaHasta;
+    }
+
+    // Una lectura y, solo si hace falta, un UPDATE condicional. Devuelve true si hay bloqueo vigente
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean verificarYLimpiar(Usuario usuario, Evento evento, boolean reiniciarIntentos) {
+        Date ahora = new Date();
+        AccountBlock bloqueo = accountBlockRepository.findByUsuarioAndEvento(usuario, evento).orElse(null);
+        if (bloqueo == null) return false;
+
+        if (bloqueo.getBloqueadaHasta() != null && bloqueo.getBloqueadaHasta().after(ahora)) {
+            return true;
+        }
+
+        boolean expirado = bloqueo.getBloqueadaHasta() != null;
+        boolean conIntentos = reiniciarIntentos && bloqueo.getIntentosFallidos() > 0;
+        if (expirado || conIntentos) {
+            accountBlockRepository.limpiarSiNoBloqueada(usuario, evento, ahora);
+        }
+        return false;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void limpiar(Usuario usuario, Evento evento) {
+        accountBlockRepository.limpiar(usuario, evento);
+    }
+}
@@ -0,0 +1,64 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
+import com.Tapia.ProyectoResidencia.Enum.CatalogoAnio;
+import com.Tapia.ProyectoResidencia.Repository.AreRepository;
+import com.Tapia.ProyectoResidencia.Repository.AsignacionZoreAreRepository;
+import com.Tapia.ProyectoResidencia.Repository.SeccionRepository;
+import com.Tapia.ProyectoResidencia.Repository.ZoreRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Años distintos por tabla (un id representativo por año) para los selectores del panel.
+// Se leen con GROUP BY anio sobre su índice y se conservan hasta que aparece un año nuevo
+@Service
+@RequiredArgsConstructor
+public class AnioCatalogoService {
+
+    private final ZoreRepository zoreRepository;
+    private final AreRepository areRepository;
+    private final AsignacionZoreAreRepository asignacionZoreAreRepository;
+    private final SeccionRepository seccionRepository;
+
+    private final Cache<CatalogoAnio, List<IdAnioDTO>> anios = Caffeine.newBuilder().build();
+
+    public List<IdAnioDTO> obtenerAnios(CatalogoAnio catalogo) {
+        return anios.get(catalogo, this::cargar);
+    }
+
+    // Se llama al guardar un registro: solo invalida si el año es nuevo, si el registro cambió de año
+    // o si la lista no está en caché (una lectura antes del commit la cargaría sin el año nuevo)
+    public void registrarAnio(CatalogoAnio catalogo, String anio, String anioAnterior) {
+        List<IdAnioDTO> cacheados = anios.getIfPresent(catalogo);
+        boolean cambioDeAnio = anioAnterior != null && !anioAnterior.equals(anio);
+        boolean anioNuevo = cacheados == null || cacheados.stream().noneMatch(a -> a.anio().equals(anio));
+        if (!cambioDeAnio && !anioNuevo) return;
+
+        anios.invalidate(catalogo);
+
+        // Una lectura concurrente pudo recargar la lista antes del commit: se expulsa otra vez al terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    anios.invalidate(catalogo);
+                }
+            });
+        }
+    }
+
+    private List<IdAnioDTO> cargar(CatalogoAnio catalogo) {
+        return switch (catalogo) {
+            case ZORE -> zoreRepository.findAniosDistintos();
+            case ARE -> areRepository.findAniosDistintos();
+            case ASIGNACION_ZORE_ARE -> asignacionZoreAreRepository.findAniosDistintos();
+            case SECCION -> seccionRepository.findAniosDistintos();
+        };
+    }
+}
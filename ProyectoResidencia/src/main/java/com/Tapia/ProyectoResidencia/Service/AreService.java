@@ -2,11 +2,11 @@ package com.Tapia.ProyectoResidencia.Service;
 
 import com.Tapia.ProyectoResidencia.DTO.AreCreate;
 import com.Tapia.ProyectoResidencia.DTO.AreResponse;
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Model.Are;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Repository.AreRepository;
-import com.Tapia.ProyectoResidencia.Repository.AsignacionZoreAreRepository;
 import com.Tapia.ProyectoResidencia.Utils.AuthUtils;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +20,6 @@ import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Year;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -32,7 +31,7 @@ public class AreService {
     private final AreRepository areRepository;
     private final SystemLogService systemLogService;
     private final UsuarioService usuarioService;
-    private final AsignacionZoreAreRepository asignacionZoreAreRepository;
+    private final AnioCatalogoService anioCatalogoService;
 
     public Page<AreResponse> listarPaginadas(Pageable pageable) {
         Page<Are> ares = areRepository.findAll(pageable);
@@ -51,7 +50,9 @@ public class AreService {
         are.setAnio(dto.anio());
         are.setUsuario(usuarioAsignado);
 
-        return guardarAre(are, Evento.ARE_REGISTER_EXITOSO, admin, sitio, ip);
+        Are saved = guardarAre(are, Evento.ARE_REGISTER_EXITOSO, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ARE, saved.getAnio(), null);
+        return saved;
     }
 
     @Transactional
@@ -63,50 +64,27 @@ public class AreService {
                 .orElseThrow(() -> new NoSuchElementException("Are no encontrada con ID: " + id));
 
         Usuario usuarioAsignado = validarAre(dto, id, admin, Evento.ARE_UPDATE_FALLIDO, sitio, ip);
+        String anioAnterior = are.getAnio();
 
         are.setNumeracion(dto.numeracion());
         are.setAnio(dto.anio());
         are.setUsuario(usuarioAsignado);
 
-        return guardarAre(are, Evento.ARE_UPDATE_EXITOSO, admin, sitio, ip);
+        Are saved = guardarAre(are, Evento.ARE_UPDATE_EXITOSO, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ARE, saved.getAnio(), anioAnterior);
+        return saved;
+    }
+
+    // Devuelve lista de años únicos
+    public List<IdAnioDTO> obtenerAniosUnicos() {
+        return anioCatalogoService.obtenerAnios(CatalogoAnio.ARE);
     }
 
     // Devuelve ARE de un año que no estén asignadas,
     // pero permite incluir explícitamente una ARE (por ID) aunque esté asignada.
+    @Transactional(readOnly = true)
     public List<AreResponse> listarPorAnioSinAsignacion(String anio, Long includeId) {
-        // 1️⃣ Obtener todas las ARE del año
-        List<Are> ares = areRepository.findByAnio(anio);
-
-        // 2️⃣ Obtener los ID de ARE asignadas ese año
-        List<Long> asignadas = asignacionZoreAreRepository.findAll().stream()
-                .filter(a -> a.getAnio().equals(anio))
-                .map(a -> a.getAre().getId())
-                .toList();
-
-        // 3️⃣ Filtrar solo las no asignadas → convertir a lista mutable
-        List<AreResponse> disponibles = new ArrayList<>(
-                ares.stream()
-                        .filter(a -> !asignadas.contains(a.getId()))
-                        .map(AreResponse::new)
-                        .toList()
-        );
-
-        // 4️⃣ Si se pasa includeId, añadir esa ARE aunque esté asignada
-        if (includeId != null) {
-            boolean yaIncluida = disponibles.stream()
-                    .anyMatch(a -> a.id().equals(includeId));
-
-            if (!yaIncluida) {
-                areRepository.findById(includeId).ifPresent(are -> {
-                    if (are.getAnio().equals(anio)) {
-                        // la añadimos al inicio
-                        disponibles.add(0, new AreResponse(are));
-                    }
-                });
-            }
-        }
-
-        return disponibles;
+        return areRepository.findDisponiblesPorAnio(anio, includeId);
     }
 
     private Are guardarAre(Are are, Evento evento, Usuario user, Sitio sitio, String ip) {
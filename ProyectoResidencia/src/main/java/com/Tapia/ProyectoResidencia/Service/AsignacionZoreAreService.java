@@ -3,6 +3,7 @@ package com.Tapia.ProyectoResidencia.Service;
 import com.Tapia.ProyectoResidencia.DTO.AsignacionZoreAreCreate;
 import com.Tapia.ProyectoResidencia.DTO.AsignacionZoreAreResponse;
 import com.Tapia.ProyectoResidencia.DTO.AsignacionZoreAreSimple;
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Model.*;
 import com.Tapia.ProyectoResidencia.Repository.*;
@@ -30,6 +31,7 @@ public class AsignacionZoreAreService {
     private final AreRepository areRepository;
     private final UsuarioService usuarioService;
     private final SystemLogService systemLogService;
+    private final AnioCatalogoService anioCatalogoService;
 
     // 🔹 Listar con paginación
     public Page<AsignacionZoreAreResponse> listarPaginadas(Pageable pageable) {
@@ -37,6 +39,11 @@ public class AsignacionZoreAreService {
         return asignaciones.map(AsignacionZoreAreResponse::new);
     }
 
+    // Devuelve lista de años únicos
+    public List<IdAnioDTO> obtenerAniosUnicos() {
+        return anioCatalogoService.obtenerAnios(CatalogoAnio.ASIGNACION_ZORE_ARE);
+    }
+
     public List<AsignacionZoreAreSimple> listarPorAnioSimple(String anio) {
         return asignacionRepository.findByAnio(anio)
                 .stream()
@@ -80,7 +87,9 @@ public class AsignacionZoreAreService {
         asignacion.setZore(zore);
         asignacion.setAre(are);
 
-        return guardarAsignacion(asignacion, Evento.ASIGNACION_ZORE_ARE_REGISTRO_EXITOSO, admin, sitio, ip);
+        AsignacionZoreAre saved = guardarAsignacion(asignacion, Evento.ASIGNACION_ZORE_ARE_REGISTRO_EXITOSO, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ASIGNACION_ZORE_ARE, saved.getAnio(), null);
+        return saved;
     }
 
     // 🔹 Actualizar asignación existente
@@ -99,13 +108,16 @@ public class AsignacionZoreAreService {
                 .orElseThrow(() -> new NoSuchElementException("No existe una ARE con ID: " + dto.areId()));
 
         validarAsignacion(zore, are, dto.anio(), admin, sitio, ip, asignacion);
+        String anioAnterior = asignacion.getAnio();
 
         // ✅ Si pasa todo, actualizar
         asignacion.setAnio(dto.anio());
         asignacion.setZore(zore);
         asignacion.setAre(are);
 
-        return guardarAsignacion(asignacion, Evento.ASIGNACION_ZORE_ARE_UPDATE_EXITOSA, admin, sitio, ip);
+        AsignacionZoreAre saved = guardarAsignacion(asignacion, Evento.ASIGNACION_ZORE_ARE_UPDATE_EXITOSA, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ASIGNACION_ZORE_ARE, saved.getAnio(), anioAnterior);
+        return saved;
     }
 
     // 🔹 Método genérico para guardar y registrar logs
@@ -0,0 +1,63 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Repository.AuditLogJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Rellena en segundo plano correo_normalizado de las filas de bitácora anteriores a la columna,
+// por bloques y con pausa entre ellos para no competir con las escrituras normales
+@Service
+public class AuditLogNormalizacionService {
+
+    private static final Logger logger = Logger.getLogger(AuditLogNormalizacionService.class.getName());
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final int lote;
+    private final long pausaMs;
+
+    private volatile Thread hilo;
+
+    public AuditLogNormalizacionService(AuditLogJdbcRepository auditLogJdbcRepository,
+                                        @Value("${app.audit.normalizacion.lote:2000}") int lote,
+                                        @Value("${app.audit.normalizacion.pausa-ms:500}") long pausaMs) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.lote = lote;
+        this.pausaMs = pausaMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizarCorreosExistentes() {
+        Thread t = new Thread(this::normalizar, "audit-log-normalizacion");
+        t.setDaemon(true);
+        hilo = t;
+        t.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        Thread t = hilo;
+        if (t != null) t.interrupt();
+    }
+
+    private void normalizar() {
+        try {
+            for (String tabla : List.of("login_logs", "system_logs")) {
+                while (!Thread.currentThread().isInterrupted()
+                        && auditLogJdbcRepository.normalizarCorreosPendientes(tabla, lote) > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "No se pudieron normalizar correos de bitácora: {0}", e.getMessage());
+        }
+    }
+}
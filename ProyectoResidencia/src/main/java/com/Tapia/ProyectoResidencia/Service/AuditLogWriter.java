@@ -0,0 +1,201 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Enum.Resultado;
+import com.Tapia.ProyectoResidencia.Model.LoginLog;
+import com.Tapia.ProyectoResidencia.Model.SystemLog;
+import com.Tapia.ProyectoResidencia.Repository.AuditLogJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Escritura diferida de bitácoras: las peticiones solo encolan el registro y un hilo lo inserta
+// por lotes cada intervalo-ms o al juntar lote registros, lo que ocurra primero. Los reintentos
+// ocurren solo en ese hilo: una caída de la BD nunca agrega esperas a las peticiones
+@Service
+public class AuditLogWriter {
+
+    private static final Logger logger = Logger.getLogger(AuditLogWriter.class.getName());
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final BlockingQueue<Object> buffer;
+    private final int lote;
+    private final long intervaloMs;
+    private final long esperaMs;
+    private final int reintentos;
+    private final AtomicLong descartados = new AtomicLong();
+
+    private volatile boolean activo = true;
+    private Thread flusher;
+
+    public AuditLogWriter(AuditLogJdbcRepository auditLogJdbcRepository,
+                          @Value("${app.audit.capacidad:10000}") int capacidad,
+                          @Value("${app.audit.lote:200}") int lote,
+                          @Value("${app.audit.intervalo-ms:500}") long intervaloMs,
+                          @Value("${app.audit.espera-ms:50}") long esperaMs,
+                          @Value("${app.audit.reintentos:3}") int reintentos) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.buffer = new ArrayBlockingQueue<>(capacidad);
+        this.lote = lote;
+        this.intervaloMs = intervaloMs;
+        this.esperaMs = esperaMs;
+        this.reintentos = reintentos;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        flusher = new Thread(this::ciclo, "audit-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void registrar(LoginLog log) {
+        encolarSegunTransaccion(log, log.getResultado());
+    }
+
+    public void registrar(SystemLog log) {
+        encolarSegunTransaccion(log, log.getResultado());
+    }
+
+    // Registros perdidos: buffer lleno o fallas que persistieron tras los reintentos
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    // Al apagar se deja de aceptar y se vacía todo lo pendiente antes de cerrar el DataSource
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        List<Object> restantes = new ArrayList<>();
+        buffer.drainTo(restantes);
+        escribir(restantes);
+    }
+
+    // Los éxitos solo cuentan si la transacción de negocio confirma, como cuando se guardaban dentro de ella;
+    // fallos y errores se encolan de inmediato para que sobrevivan al rollback
+    private void encolarSegunTransaccion(Object log, Resultado resultado) {
+        if (resultado == Resultado.EXITO && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(log);
+                }
+            });
+            return;
+        }
+        encolar(log);
+    }
+
+    private void encolar(Object log) {
+        if (!activo) {
+            // Apagado en curso: detener() ya vació el buffer y no hay hilo que lo atienda
+            escribir(List.of(log));
+            return;
+        }
+        try {
+            // Si el buffer está lleno se espera un poco; si sigue lleno (típicamente la BD está caída y el
+            // hilo de escritura reintentando) el registro se descarta y se cuenta, sin bloquear la petición
+            if (buffer.offer(log, esperaMs, TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = descartados.incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            logger.log(Level.SEVERE, "Buffer de bitácoras lleno: {0} registros descartados desde el arranque", total);
+        }
+    }
+
+    private void ciclo() {
+        List<Object> pendientes = new ArrayList<>(lote);
+        while (activo) {
+            try {
+                Object primero = buffer.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primero == null) continue;
+                pendientes.add(primero);
+
+                // Junta hasta completar el lote o hasta que venza el intervalo desde el primer registro
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+                while (pendientes.size() < lote) {
+                    buffer.drainTo(pendientes, lote - pendientes.size());
+                    long restante = limite - System.nanoTime();
+                    if (pendientes.size() >= lote || restante <= 0) break;
+                    Object siguiente = buffer.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) break;
+                    pendientes.add(siguiente);
+                }
+            } catch (InterruptedException e) {
+                // detener() vacía el resto del buffer
+            } finally {
+                escribir(pendientes);
+                pendientes.clear();
+            }
+        }
+    }
+
+    private void escribir(List<Object> registros) {
+        if (registros.isEmpty()) return;
+
+        List<LoginLog> loginLogs = new ArrayList<>();
+        List<SystemLog> systemLogs = new ArrayList<>();
+        for (Object registro : registros) {
+            if (registro instanceof LoginLog l) loginLogs.add(l);
+            else if (registro instanceof SystemLog s) systemLogs.add(s);
+        }
+
+        if (insertarConReintentos(loginLogs, systemLogs)) return;
+
+        // El lote completo siguió fallando: se intenta fila por fila para que un registro inválido
+        // no arrastre al resto, y solo se descarta lo que aun así falla
+        long perdidos = 0;
+        for (LoginLog l : loginLogs) {
+            if (!insertar(List.of(l), List.of())) perdidos++;
+        }
+        for (SystemLog s : systemLogs) {
+            if (!insertar(List.of(), List.of(s))) perdidos++;
+        }
+        if (perdidos > 0) {
+            logger.log(Level.SEVERE, "Se descartaron {0} registros de bitácora ({1} en total desde el arranque)",
+                    new Object[]{perdidos, descartados.addAndGet(perdidos)});
+        }
+    }
+
+    // Reintentos con espera creciente para fallos transitorios (conexión, bloqueo, failover)
+    private boolean insertarConReintentos(List<LoginLog> loginLogs, List<SystemLog> systemLogs) {
+        for (int intento = 1; intento <= reintentos; intento++) {
+            if (insertar(loginLogs, systemLogs)) return true;
+            if (intento < reintentos) {
+                try {
+                    Thread.sleep(intervaloMs * intento);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean insertar(List<LoginLog> loginLogs, List<SystemLog> systemLogs) {
+        try {
+            auditLogJdbcRepository.insertar(loginLogs, systemLogs);
+            return true;
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "No se pudieron guardar {0} registros de bitácora: {1}",
+                    new Object[]{loginLogs.size() + systemLogs.size(), e.getMessage()});
+            return false;
+        }
+    }
+}
@@ -3,14 +3,15 @@ package com.Tapia.ProyectoResidencia.Service;
 import com.Tapia.ProyectoResidencia.DTO.LoginRequest;
 import com.Tapia.ProyectoResidencia.DTO.RegisterRequest;
 import com.Tapia.ProyectoResidencia.DTO.AuthResponse;
+import com.Tapia.ProyectoResidencia.DTO.JwtClaims;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Exception.BloqueoException;
 import com.Tapia.ProyectoResidencia.Exception.UserNotFoundException;
-import com.Tapia.ProyectoResidencia.Model.AccountBlock;
 import com.Tapia.ProyectoResidencia.Model.PasswordResetToken;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Utils.JwtUtils;
 import com.Tapia.ProyectoResidencia.Utils.PasswordUtils;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -83,18 +84,13 @@ public class AuthService {
         Usuario usuario = usuarioService.buscarUsuarioByCorreo(request.email())
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado"));
 
-        // 4️⃣ Verificar si el usuario está bloqueado por evento LOGIN_FALLIDO
-        Optional<AccountBlock> bloqueoOpt = accountBlockService.obtenerBloqueoActivo(usuario, Evento.LOGIN_FALLIDO);
-        if (bloqueoOpt.isPresent() && bloqueoOpt.get().getBloqueadaHasta() != null) {
-            Date ahora = new Date();
-            if (bloqueoOpt.get().getBloqueadaHasta().after(ahora)) {
-                loginLogService.registrarLogsUsuario(usuario, Evento.LOGIN_FALLIDO, Resultado.BLOQUEADO, sitio, ip, "2");
-                throw new BloqueoException("La cuenta está bloqueada. Intente más tarde.");
-            }
+        // 4️⃣ Verificar bloqueo por evento LOGIN_FALLIDO y, si no hay, limpiar intentos (una lectura + update condicional)
+        if (accountBlockService.verificarYLimpiar(usuario, Evento.LOGIN_FALLIDO, true)) {
+            loginLogService.registrarLogsUsuario(usuario, Evento.LOGIN_FALLIDO, Resultado.BLOQUEADO, sitio, ip, "2");
+            throw new BloqueoException("La cuenta está bloqueada. Intente más tarde.");
         }
 
-        // 5️⃣ Si hay bloqueos expirados → limpiar
-        accountBlockService.limpiarBloqueo(usuario, Evento.LOGIN_FALLIDO);
+        // 5️⃣ Limpiar intentos por IP (en memoria)
         ipBlockService.limpiarIntentos(ip);
 
         // 6️⃣ Generar token JWT
@@ -130,13 +126,10 @@ public class AuthService {
 
         Usuario usuario = usuarioService.getUsuarioEntityByCorreo(correo);
 
-        // 3. Revisar bloqueo por cuenta
-        if (accountBlockService.estaBloqueada(usuario, Evento.LOGIN_FALLIDO)) {
+        // 3. Revisar bloqueo por cuenta (limpia si ya expiró)
+        if (accountBlockService.verificarYLimpiar(usuario, Evento.LOGIN_FALLIDO, false)) {
              loginLogService.registrarLogsUsuario(usuario, Evento.LOGIN_FALLIDO, Resultado.FALLO, sitio, ip, "2");
             throw new BloqueoException("La cuenta está bloqueada. Intente más tarde.");
-        } else {
-            // limpia si ya expiró
-            accountBlockService.limpiarSiExpirado(usuario, Evento.LOGIN_FALLIDO);
         }
 
         // 4. Generar tokens
@@ -154,24 +147,24 @@ public class AuthService {
             throw new IllegalArgumentException("El refresh token es requerido");
         }
 
-        String username;
+        JwtClaims claims;
         try {
-            username = jwtUtils.extractUsername(refreshToken);
+            claims = jwtUtils.validateToken(refreshToken);
+        } catch (ExpiredJwtException e) {
+            // Firma válida pero expirado → se puede atribuir al usuario sin volver a parsear
+            usuarioService.buscarUsuarioByCorreo(e.getClaims().getSubject()).ifPresentOrElse(
+                    usuario -> loginLogService.registrarLogsUsuario(usuario, Evento.REFRESH_TOKEN_FALLIDO, Resultado.FALLO, sitio, ip, "Refresh token expirado"),
+                    () -> loginLogService.registrarLogsCorreo("Desconocido", Evento.REFRESH_TOKEN_FALLIDO, Resultado.FALLO, sitio, ip, null)
+            );
+            throw new SecurityException("Refresh token inválido o expirado. Se requiere iniciar sesión nuevamente.");
         } catch (Exception e) {
             loginLogService.registrarLogsCorreo("Desconocido", Evento.REFRESH_TOKEN_FALLIDO, Resultado.FALLO, sitio, ip, null);
             throw new SecurityException("Refresh token inválido");
         }
 
-        Usuario usuario = usuarioService.buscarUsuarioByCorreo(username)
+        Usuario usuario = usuarioService.buscarUsuarioByCorreo(claims.correo())
                 .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado"));
 
-        if (!jwtUtils.isRefreshTokenValid(refreshToken, username)) {
-            String descripcion = jwtUtils.extractClaims(refreshToken).getExpiration().before(new Date()) ?
-                    "Refresh token expirado" : "Refresh token inválido";
-            loginLogService.registrarLogsUsuario(usuario, Evento.REFRESH_TOKEN_FALLIDO, Resultado.FALLO, sitio, ip, descripcion);
-            throw new SecurityException("Refresh token inválido o expirado. Se requiere iniciar sesión nuevamente.");
-        }
-
         String newJwt = jwtUtils.generateToken(usuario);
 
         // Registrar éxito de refresh
@@ -194,8 +187,8 @@ public class AuthService {
         if (usuarioOpt.isPresent()) {
             Usuario usuario = usuarioOpt.get();
 
-            // --- Revisar bloqueo por cuenta ---
-            if (accountBlockService.estaBloqueada(usuario, Evento.PASSWORD_RESET_FALLIDO)) {
+            // --- Revisar bloqueo por cuenta (limpia si ya expiró) ---
+            if (accountBlockService.verificarYLimpiar(usuario, Evento.PASSWORD_RESET_FALLIDO, false)) {
                 loginLogService.registrarLogsUsuario(usuario, Evento.PASSWORD_RESET_SOLICITUD, Resultado.FALLO, sitio, ip, "1");
                 throw new BloqueoException("La cuenta está bloqueada. Intente más tarde.");
             }
@@ -203,9 +196,6 @@ public class AuthService {
             // Registrar intento de reset (aunque sea válido)
             accountBlockService.registrarIntentoFallido(usuario, Evento.PASSWORD_RESET_SOLICITUD_SIN_VERIFICAR, ip);
 
-            // --- Limpiar intentos si ya expiró el bloqueo ---
-            accountBlockService.limpiarSiExpirado(usuario, Evento.PASSWORD_RESET_FALLIDO);
-
             // --- Limpiar tokens antiguos ---
             tokenService.eliminarTokenUsuario(usuario);
 
@@ -0,0 +1,80 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.CatalogoSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+// Catálogos casi estáticos (municipios, localidades, vocalías) servidos desde una instantánea JSON ya
+// serializada. Un acierto no toca la BD ni Jackson; con If-None-Match ni siquiera se envía el cuerpo.
+// Las altas, cambios y bajas expulsan el grupo afectado y la siguiente lectura lo reconstruye completo
+@Service
+public class CatalogoCacheService {
+
+    public static final String MUNICIPIOS = "municipios";
+    public static final String LOCALIDADES = "localidades";
+    public static final String VOCALIAS = "vocalias";
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lectura;
+    private final Cache<String, CatalogoSnapshot> snapshots;
+
+    // Acotada: cada municipio consultado agrega su propia clave "localidades:<id>"
+    public CatalogoCacheService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                @Value("${app.cache.catalogos.max-size:500}") long maxSize) {
+        this.objectMapper = objectMapper;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    // Lectura a través de la caché; la carga y la serialización ocurren en una sola transacción de lectura
+    // (las relaciones perezosas se resuelven ahí) y solo una petición reconstruye cada clave a la vez
+    public CatalogoSnapshot obtener(String clave, Supplier<?> cargador) {
+        return snapshots.get(clave, c -> lectura.execute(status -> construir(cargador.get())));
+    }
+
+    // Expulsa todas las claves del grupo (p. ej. "localidades" y "localidades:075")
+    public void invalidar(String grupo) {
+        expulsar(grupo);
+
+        // Una lectura concurrente pudo reconstruir con datos previos al commit: se expulsa otra vez al terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    expulsar(grupo);
+                }
+            });
+        }
+    }
+
+    private void expulsar(String grupo) {
+        snapshots.asMap().keySet().removeIf(clave -> clave.equals(grupo) || clave.startsWith(grupo + ":"));
+    }
+
+    private CatalogoSnapshot construir(Object datos) {
+        try {
+            byte[] cuerpo = objectMapper.writeValueAsBytes(datos);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(cuerpo);
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+            return new CatalogoSnapshot(etag, cuerpo);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+    }
+}
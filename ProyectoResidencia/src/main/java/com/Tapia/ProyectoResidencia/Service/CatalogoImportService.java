@@ -0,0 +1,313 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.ImportacionResultado;
+import com.Tapia.ProyectoResidencia.Enum.*;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.CatalogoImportJdbcRepository;
+import com.Tapia.ProyectoResidencia.Repository.CatalogoImportJdbcRepository.LocalidadFila;
+import com.Tapia.ProyectoResidencia.Repository.CatalogoImportJdbcRepository.LocalidadesMunicipio;
+import com.Tapia.ProyectoResidencia.Repository.CatalogoImportJdbcRepository.MunicipioFila;
+import com.Tapia.ProyectoResidencia.Repository.CatalogoImportJdbcRepository.SeccionFila;
+import com.Tapia.ProyectoResidencia.Utils.CsvUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Importación masiva de municipios, localidades y secciones desde CSV. El archivo se lee línea por línea,
+// cada fila se valida contra conjuntos en memoria precargados por municipio/año (sin existsBy por fila)
+// y las filas válidas se insertan por lotes JDBC, un bloque por transacción. Una sola entrada de bitácora
+// resume la importación completa
+@Service
+@RequiredArgsConstructor
+public class CatalogoImportService {
+
+    private static final Logger logger = Logger.getLogger(CatalogoImportService.class.getName());
+
+    private final CatalogoImportJdbcRepository catalogoImportJdbcRepository;
+    private final SystemLogService systemLogService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final LocalidadIndiceService localidadIndiceService;
+    private final AnioCatalogoService anioCatalogoService;
+
+    @Value("${app.importacion.lote:500}")
+    private int lote;
+
+    @Value("${app.importacion.max-errores:1000}")
+    private int maxErrores;
+
+    // Conteos y errores de una importación en curso
+    private final class Reporte {
+        final CatalogoImportacion catalogo;
+        final List<ImportacionResultado.ErrorFila> errores = new ArrayList<>();
+        final Set<String> anios = new HashSet<>();
+        // Llaves que las filas del bloque en curso apartaron en los conjuntos de duplicados
+        final List<Runnable> reservas = new ArrayList<>();
+        long filas;
+        long insertadas;
+        long rechazadas;
+
+        Reporte(CatalogoImportacion catalogo) {
+            this.catalogo = catalogo;
+        }
+
+        void reservar(Runnable liberar) {
+            reservas.add(liberar);
+        }
+
+        void rechazar(long fila, String mensaje) {
+            rechazadas++;
+            if (errores.size() < maxErrores) {
+                errores.add(new ImportacionResultado.ErrorFila(fila, mensaje));
+            }
+        }
+
+        String resumen() {
+            return catalogo + ": " + insertadas + " insertadas, " + rechazadas + " rechazadas de " + filas + " filas";
+        }
+    }
+
+    public ImportacionResultado importar(Usuario admin, CatalogoImportacion catalogo, InputStream entrada, Sitio sitio, String ip) {
+        Reporte reporte = new Reporte(catalogo);
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            switch (catalogo) {
+                case MUNICIPIO -> procesar(lector, "id", reporte, validadorMunicipio(reporte),
+                        catalogoImportJdbcRepository::insertarMunicipios);
+                case LOCALIDAD -> procesar(lector, "municipio_id", reporte, validadorLocalidad(reporte),
+                        catalogoImportJdbcRepository::insertarLocalidades);
+                case SECCION -> procesar(lector, "numero_seccion", reporte, validadorSeccion(reporte),
+                        catalogoImportJdbcRepository::insertarSecciones);
+            }
+        } catch (IOException e) {
+            registrarError(admin, reporte, sitio, ip, e.getMessage());
+            throw new IllegalArgumentException("No se pudo leer el archivo CSV: " + e.getMessage());
+        } catch (RuntimeException e) {
+            registrarError(admin, reporte, sitio, ip, e.getMessage());
+            throw e;
+        } finally {
+            // Los bloques ya confirmados son visibles aunque la importación se haya interrumpido
+            if (reporte.insertadas > 0) refrescarCatalogos(reporte);
+        }
+
+        systemLogService.registrarLogUsuario(admin, Evento.IMPORTACION_CATALOGO_EXITOSO, Resultado.EXITO, sitio, ip,
+                reporte.resumen());
+        return new ImportacionResultado(catalogo, reporte.filas, reporte.insertadas, reporte.rechazadas,
+                List.copyOf(reporte.errores));
+    }
+
+    private <T> void procesar(BufferedReader lector, String primeraColumna, Reporte reporte,
+                              Function<String[], T> validar, Consumer<List<T>> insertar) throws IOException {
+        List<T> bloque = new ArrayList<>(lote);
+        List<Long> filasBloque = new ArrayList<>(lote);
+        String linea;
+        long numero = 0;
+
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (numero == 1) {
+                if (linea.startsWith("\uFEFF")) linea = linea.substring(1);
+                if (linea.trim().toLowerCase(Locale.ROOT).startsWith(primeraColumna)) continue; // encabezado
+            }
+            if (linea.isBlank()) continue;
+
+            reporte.filas++;
+            try {
+                bloque.add(validar.apply(CsvUtils.parsearLinea(linea)));
+                filasBloque.add(numero);
+            } catch (IllegalArgumentException e) {
+                reporte.rechazar(numero, e.getMessage());
+            }
+
+            if (bloque.size() >= lote) {
+                vaciar(bloque, filasBloque, insertar, reporte);
+            }
+        }
+        vaciar(bloque, filasBloque, insertar, reporte);
+    }
+
+    private <T> void vaciar(List<T> bloque, List<Long> filasBloque, Consumer<List<T>> insertar, Reporte reporte) {
+        if (bloque.isEmpty()) return;
+        try {
+            insertar.accept(bloque);
+            reporte.insertadas += bloque.size();
+        } catch (DataAccessException e) {
+            // El bloque completo hizo rollback: sus filas se reportan, sus llaves se liberan para que
+            // una fila posterior con el mismo número o nombre no se rechace como duplicada, y la importación continúa
+            reporte.reservas.forEach(Runnable::run);
+            String mensaje = "Bloque rechazado por la base de datos: " + e.getMostSpecificCause().getMessage();
+            filasBloque.forEach(fila -> reporte.rechazar(fila, mensaje));
+            logger.log(Level.WARNING, "Importación de {0}: {1}", new Object[]{reporte.catalogo, mensaje});
+        }
+        reporte.reservas.clear();
+        bloque.clear();
+        filasBloque.clear();
+    }
+
+    // id,nombre
+    private Function<String[], MunicipioFila> validadorMunicipio(Reporte reporte) {
+        Set<String> ids = catalogoImportJdbcRepository.findMunicipioIds();
+        Set<String> nombres = catalogoImportJdbcRepository.findMunicipioNombres();
+
+        return campos -> {
+            exigirColumnas(campos, 2);
+            String id = normalizarIdMunicipio(campos[0]);
+            String nombre = exigirTexto(campos[1], "nombre", 100);
+
+            if (ids.contains(id)) throw new IllegalArgumentException("El ID del municipio ya existe: " + id);
+            String llaveNombre = nombre.toLowerCase(Locale.ROOT);
+            if (nombres.contains(llaveNombre)) {
+                throw new IllegalArgumentException("El nombre del municipio ya existe: " + nombre);
+            }
+            ids.add(id);
+            nombres.add(llaveNombre);
+            reporte.reservar(() -> {
+                ids.remove(id);
+                nombres.remove(llaveNombre);
+            });
+            return new MunicipioFila(id, nombre);
+        };
+    }
+
+    // municipio_id,numero_localidad,nombre
+    private Function<String[], LocalidadFila> validadorLocalidad(Reporte reporte) {
+        Set<String> municipios = catalogoImportJdbcRepository.findMunicipioIds();
+        Map<String, LocalidadesMunicipio> porMunicipio = new HashMap<>();
+
+        return campos -> {
+            exigirColumnas(campos, 3);
+            String municipioId = normalizarIdMunicipio(campos[0]);
+            String numero = exigirTexto(campos[1], "numero_localidad", 10);
+            String nombre = exigirTexto(campos[2], "nombre", 100);
+
+            if (!municipios.contains(municipioId)) {
+                throw new IllegalArgumentException("Municipio no encontrado con ID: " + municipioId);
+            }
+            LocalidadesMunicipio existentes = porMunicipio.computeIfAbsent(municipioId,
+                    catalogoImportJdbcRepository::findLocalidades);
+            if (existentes.idsPorNumero().containsKey(numero)) {
+                throw new IllegalArgumentException("Ya existe una localidad con el número " + numero + " en el municipio " + municipioId);
+            }
+            String llaveNombre = nombre.toLowerCase(Locale.ROOT);
+            if (existentes.nombres().contains(llaveNombre)) {
+                throw new IllegalArgumentException("Ya existe una localidad con el nombre '" + nombre + "' en el municipio " + municipioId);
+            }
+            existentes.idsPorNumero().put(numero, null);
+            existentes.nombres().add(llaveNombre);
+            reporte.reservar(() -> {
+                existentes.idsPorNumero().remove(numero);
+                existentes.nombres().remove(llaveNombre);
+            });
+            return new LocalidadFila(municipioId, numero, nombre);
+        };
+    }
+
+    // numero_seccion,anio,zore,are,municipio_id,localidades (números de localidad separados por ;)
+    private Function<String[], SeccionFila> validadorSeccion(Reporte reporte) {
+        Map<String, Map<String, Long>> asignacionesPorAnio = new HashMap<>();
+        Map<String, Set<String>> seccionesPorAnio = new HashMap<>();
+        Map<String, LocalidadesMunicipio> localidadesPorMunicipio = new HashMap<>();
+
+        return campos -> {
+            exigirColumnas(campos, 6);
+            String numero = campos[0];
+            String anio = campos[1];
+            if (!numero.matches("^[0-9]{4}$")) {
+                throw new IllegalArgumentException("El número de sección debe tener 4 dígitos");
+            }
+            if (!anio.matches("^(19|20)\\d{2}$")) {
+                throw new IllegalArgumentException("El año debe tener exactamente 4 dígitos y estar entre 1900 y 2099");
+            }
+
+            int zore = exigirEntero(campos[2], "zore");
+            int are = exigirEntero(campos[3], "are");
+            Long asignacionId = asignacionesPorAnio.computeIfAbsent(anio, catalogoImportJdbcRepository::findAsignaciones)
+                    .get(zore + "|" + are);
+            if (asignacionId == null) {
+                throw new IllegalArgumentException("No existe la asignación ZORE " + zore + " – ARE " + are + " en " + anio);
+            }
+
+            String municipioId = normalizarIdMunicipio(campos[4]);
+            Map<String, Long> localidades = localidadesPorMunicipio.computeIfAbsent(municipioId,
+                    catalogoImportJdbcRepository::findLocalidades).idsPorNumero();
+            List<Long> localidadIds = new ArrayList<>();
+            for (String numeroLocalidad : campos[5].split(";")) {
+                if (numeroLocalidad.isBlank()) continue;
+                Long id = localidades.get(numeroLocalidad.trim());
+                if (id == null) {
+                    throw new IllegalArgumentException("La localidad " + numeroLocalidad.trim() + " no existe en el municipio " + municipioId);
+                }
+                if (!localidadIds.contains(id)) localidadIds.add(id);
+            }
+            if (localidadIds.isEmpty()) {
+                throw new IllegalArgumentException("Debe seleccionar al menos una localidad");
+            }
+
+            Set<String> numeros = seccionesPorAnio.computeIfAbsent(anio, catalogoImportJdbcRepository::findNumerosSeccion);
+            if (!numeros.add(numero)) {
+                throw new IllegalArgumentException("Ya existe la sección " + numero + " en el año " + anio);
+            }
+            reporte.reservar(() -> numeros.remove(numero));
+            reporte.anios.add(anio);
+            return new SeccionFila(numero, anio, asignacionId, localidadIds);
+        };
+    }
+
+    private void refrescarCatalogos(Reporte reporte) {
+        switch (reporte.catalogo) {
+            case MUNICIPIO, LOCALIDAD -> {
+                catalogoCacheService.invalidar(CatalogoCacheService.MUNICIPIOS);
+                catalogoCacheService.invalidar(CatalogoCacheService.LOCALIDADES);
+                localidadIndiceService.reconstruir();
+            }
+            case SECCION -> reporte.anios.forEach(anio -> anioCatalogoService.registrarAnio(CatalogoAnio.SECCION, anio, null));
+        }
+    }
+
+    private void registrarError(Usuario admin, Reporte reporte, Sitio sitio, String ip, String mensaje) {
+        systemLogService.registrarLogUsuario(admin, Evento.IMPORTACION_CATALOGO_ERROR, Resultado.FALLO, sitio, ip,
+                "Importación interrumpida (" + reporte.resumen() + "): " + mensaje);
+    }
+
+    private static void exigirColumnas(String[] campos, int columnas) {
+        if (campos.length < columnas) {
+            throw new IllegalArgumentException("Se esperaban " + columnas + " columnas y se encontraron " + campos.length);
+        }
+    }
+
+    private static String exigirTexto(String valor, String columna, int maximo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("La columna " + columna + " no puede estar vacía");
+        }
+        if (valor.length() > maximo) {
+            throw new IllegalArgumentException("La columna " + columna + " no debe exceder los " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static int exigirEntero(String valor, String columna) {
+        if (valor == null || !valor.matches("\\d{1,9}")) {
+            throw new IllegalArgumentException("La columna " + columna + " debe ser un número entero: " + valor);
+        }
+        return Integer.parseInt(valor);
+    }
+
+    // Mismo formato que MunicipioService: solo números, hasta 3 dígitos, con ceros a la izquierda
+    private static String normalizarIdMunicipio(String valor) {
+        if (valor == null || !valor.matches("\\d{1,3}")) {
+            throw new IllegalArgumentException("El ID del municipio debe tener de 1 a 3 dígitos: " + valor);
+        }
+        return String.format("%03d", Integer.parseInt(valor));
+    }
+}
@@ -14,9 +14,14 @@ import org.springframework.stereotype.Service;
 public class DetailService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioCacheService usuarioCacheService;
 
     @Override
     public UserDetails loadUserByUsername(String correo) throws UsernameNotFoundException {
+        return usuarioCacheService.obtenerDetalles(correo, this::cargarUsuario);
+    }
+
+    private UserDetails cargarUsuario(String correo) {
         Usuario usuario = usuarioRepository.findByCorreo(correo)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con correo: " + correo));
 
@@ -1,38 +1,47 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CursorPage;
+import com.Tapia.ProyectoResidencia.DTO.LogCursor;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
-import com.Tapia.ProyectoResidencia.Exception.EmailSendException;
 import com.Tapia.ProyectoResidencia.Model.EmailLog;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import com.Tapia.ProyectoResidencia.Repository.EmailLogRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 @Service
 @RequiredArgsConstructor
 public class EmailLogService {
 
-    private final JavaMailSender mailSender;
-    private static final Logger logger = Logger.getLogger(EmailLogService.class.getName());
+    private final EmailQueueService emailQueueService;
 
     @Value("${app.admin.emails}") // lista separada por comas
     private String adminEmails;
     private final EmailLogRepository emailLogRepository;
 
-    public Page<EmailLog> listarLogsCorreo(Pageable pageable) {
-        return emailLogRepository.findAllByOrderByFechaEnvioDesc(pageable);
+    // Listado por cursor (keyset) sobre (fecha, id): costo constante en cualquier página y sin COUNT
+    public CursorPage<EmailLog> listarLogsCorreo(String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<EmailLog> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = emailLogRepository.findPrimeraPagina(limite);
+        } else {
+            LogCursor posicion = LogCursor.decodificar(cursor);
+            filas = emailLogRepository.findPaginaDespuesDe(posicion.fecha(), posicion.id(), limite);
+        }
+        return CursorPage.of(filas, tamano, log -> new LogCursor(log.getFechaEnvio(), log.getId()));
     }
 
     public void notificarAdministradores(Usuario usuario, Evento evento, Date desbloqueo, String ip){
@@ -345,71 +354,22 @@ public class EmailLogService {
     }
 
     private void enviarCorreoAdministradores(Usuario usuario, Evento evento, String asunto, String cuerpo) {
-        for (String destinatario : adminEmails.split(",")) {
-            try {
-                SimpleMailMessage msgAdmin = new SimpleMailMessage();
-                msgAdmin.setTo(destinatario.trim());
-                msgAdmin.setSubject("[ADMIN] " + asunto);
-
-                // Determinar el contenido del correo
-                if (evento == Evento.POSIBLE_ATAQUE_IP) {
-                    msgAdmin.setText(cuerpo);
-                } else {
-                    msgAdmin.setText(cuerpo + "\n\nUsuario afectado: " + usuario.getCorreo());
-                }
+        // Un solo mensaje por evento dirigido a todos los administradores
+        List<String> destinatarios = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
 
-                // Enviar correo
-                mailSender.send(msgAdmin);
-
-                // Registrar notificación exitosa
-                if (evento == Evento.POSIBLE_ATAQUE_IP) {
-                    registrarNotificacion(null, destinatario.trim(), evento, "[ADMIN] " + asunto, cuerpo);
-                } else {
-                    registrarNotificacion(usuario.getId(), destinatario.trim(), evento, "[ADMIN] " + asunto, cuerpo + "\n\nUsuario afectado: " + usuario.getCorreo());
-                }
-
-            } catch (Exception ex) {
-                // Registrar fallo individualmente
-                registrarNotificacion(usuario.getId(), destinatario.trim(), evento, "[ADMIN] " + asunto, "ERROR AL ENVIAR CORREO: " + ex.getMessage() + "\n\n" + cuerpo);
-                EmailSendException e = new EmailSendException("No se pudo enviar correo a " + usuario.getCorreo(), ex);
-                logger.log(Level.WARNING, "Error enviando correo al admin {0}: {1}",
-                        new Object[]{destinatario.trim(), e.getMessage()});
-                //throw new RuntimeException("Error enviando correo a " + usuario.getCorreo(), ex);
-            }
+        if (evento == Evento.POSIBLE_ATAQUE_IP) {
+            emailQueueService.encolar(null, destinatarios, evento, "[ADMIN] " + asunto, cuerpo);
+        } else {
+            emailQueueService.encolar(usuario.getId(), destinatarios, evento, "[ADMIN] " + asunto,
+                    cuerpo + "\n\nUsuario afectado: " + usuario.getCorreo());
         }
     }
 
     private void enviarCorreoUsuarios(Usuario usuario, Evento evento, String asunto, String cuerpo) {
-        try {
-            SimpleMailMessage mensaje = new SimpleMailMessage();
-            mensaje.setTo(usuario.getCorreo());
-            mensaje.setSubject(asunto);
-            mensaje.setText(cuerpo);
-
-            // Enviar correo
-            mailSender.send(mensaje);
-
-            // Registrar notificación exitosa
-            registrarNotificacion(usuario.getId(), usuario.getCorreo(), evento, asunto, cuerpo);
-
-        } catch (Exception e) {
-            // Registrar fallo y lanzar excepción
-            registrarNotificacion(usuario.getId(), usuario.getCorreo(), evento, asunto, "ERROR AL ENVIAR CORREO: " + e.getMessage() + "\n\n" + cuerpo);
-            EmailSendException ex = new EmailSendException("No se pudo enviar correo a " + usuario.getCorreo(), e);
-            logger.log(Level.WARNING, ex.getMessage());
-        }
-    }
-
-    private void registrarNotificacion(Long idUsuario, String correoDestinatario, Evento tipoEvento,
-                                       String asunto, String cuerpo) {
-        EmailLog log = new EmailLog();
-        log.setIdUsuario(idUsuario);
-        log.setCorreoDestinatario(correoDestinatario);
-        log.setTipoEvento(tipoEvento);
-        log.setAsunto(asunto);
-        log.setCuerpo(cuerpo);
-        log.setFechaEnvio(Date.from(Instant.now()));
-        emailLogRepository.save(log);
+        emailQueueService.encolar(usuario.getId(), List.of(usuario.getCorreo()), evento, asunto, cuerpo);
     }
 
     private String formatoFechaTexto(Date fecha) {
@@ -0,0 +1,132 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Enum.EstadoCorreo;
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Model.EmailLog;
+import com.Tapia.ProyectoResidencia.Repository.EmailLogRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Cola de salida de correos respaldada por emails_logs: cada mensaje se guarda como PENDIENTE y un
+// pool acotado de workers lo envía fuera del hilo de la petición, con reintentos y backoff exponencial
+@Service
+public class EmailQueueService {
+
+    private static final Logger logger = Logger.getLogger(EmailQueueService.class.getName());
+    private static final List<EstadoCorreo> ESTADOS_LISTOS = List.of(EstadoCorreo.PENDIENTE, EstadoCorreo.ENVIANDO);
+
+    private final EmailLogRepository emailLogRepository;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor workers;
+
+    @Value("${app.mail.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${app.mail.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${app.mail.reserva-ms:300000}")
+    private long reservaMs;
+
+    @Value("${app.mail.lote:100}")
+    private int lote;
+
+    public EmailQueueService(EmailLogRepository emailLogRepository,
+                             JavaMailSender mailSender,
+                             @Qualifier("emailExecutor") ThreadPoolTaskExecutor workers) {
+        this.emailLogRepository = emailLogRepository;
+        this.mailSender = mailSender;
+        this.workers = workers;
+    }
+
+    // Persiste el correo en su propia transacción (no se pierde si el negocio hace rollback)
+    // y lo entrega a los workers una vez confirmado
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void encolar(Long idUsuario, List<String> destinatarios, Evento evento, String asunto, String cuerpo) {
+        Date ahora = Date.from(Instant.now());
+        EmailLog log = new EmailLog();
+        log.setIdUsuario(idUsuario);
+        log.setCorreoDestinatario(String.join(",", destinatarios));
+        log.setTipoEvento(evento);
+        log.setAsunto(asunto);
+        log.setCuerpo(cuerpo);
+        log.setFechaEnvio(ahora);
+        log.setEstado(EstadoCorreo.PENDIENTE);
+        log.setIntentos(0);
+        log.setProximoIntento(ahora);
+        Long id = emailLogRepository.save(log).getId();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                despachar(id);
+            }
+        });
+    }
+
+    // Barrido de respaldo: reintentos con backoff vencido, correos que no cupieron en la cola
+    // y reservas de workers que murieron a mitad de un envío
+    @Scheduled(fixedDelayString = "${app.mail.barrido-ms:30000}")
+    public void barrerPendientes() {
+        List<Long> ids = emailLogRepository.findIdsListos(ESTADOS_LISTOS, Date.from(Instant.now()), PageRequest.of(0, lote));
+        ids.forEach(this::despachar);
+    }
+
+    // Con la cola llena o el pool cerrado se descarta: el correo sigue PENDIENTE en BD
+    private void despachar(Long id) {
+        workers.execute(() -> enviar(id));
+    }
+
+    private void enviar(Long id) {
+        Date ahora = Date.from(Instant.now());
+        if (emailLogRepository.reservar(id, ESTADOS_LISTOS, EstadoCorreo.ENVIANDO, ahora,
+                new Date(ahora.getTime() + reservaMs)) == 0) {
+            return; // otro worker lo tomó o aún no toca reintentarlo
+        }
+
+        EmailLog log = emailLogRepository.findById(id).orElse(null);
+        if (log == null) return;
+
+        try {
+            // Un solo mensaje con todos los destinatarios
+            SimpleMailMessage mensaje = new SimpleMailMessage();
+            mensaje.setTo(Arrays.stream(log.getCorreoDestinatario().split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toArray(String[]::new));
+            mensaje.setSubject(log.getAsunto());
+            mensaje.setText(log.getCuerpo());
+            mailSender.send(mensaje);
+
+            emailLogRepository.marcarEnviado(id, EstadoCorreo.ENVIADO);
+        } catch (Exception ex) {
+            int intentos = log.getIntentos() + 1;
+            boolean agotado = intentos >= maxIntentos;
+            Date proximo = agotado ? null : new Date(System.currentTimeMillis() + backoffMs * (1L << Math.min(intentos - 1, 10)));
+            String error = ex.getMessage() != null && ex.getMessage().length() > 500
+                    ? ex.getMessage().substring(0, 500)
+                    : ex.getMessage();
+
+            emailLogRepository.marcarFallo(id, agotado ? EstadoCorreo.FALLIDO : EstadoCorreo.PENDIENTE, proximo, error);
+            logger.log(Level.WARNING, "Error enviando correo {0} a {1} (intento {2}): {3}",
+                    new Object[]{id, log.getCorreoDestinatario(), intentos, ex.getMessage()});
+        }
+    }
+}
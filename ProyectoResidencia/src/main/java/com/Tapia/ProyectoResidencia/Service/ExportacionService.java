@@ -0,0 +1,167 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.LogFiltro;
+import com.Tapia.ProyectoResidencia.DTO.UsuarioSimple;
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Enum.Resultado;
+import com.Tapia.ProyectoResidencia.Enum.Sitio;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.ExportacionJdbcRepository;
+import com.Tapia.ProyectoResidencia.Utils.CsvUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+// Exportaciones CSV: cada fila del cursor se escribe directo en la respuesta, así que la memoria usada
+// no depende del número de registros. Al terminar (o al cortarse) cada descarga se registra en bitácora
+// quién exportó, con qué filtro y cuántas filas
+@Service
+@RequiredArgsConstructor
+public class ExportacionService {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Tabla de bitácora, columnas exportadas (las del entity) y columna de fecha para filtro y orden
+    private record TablaLog(String nombre, List<String> columnas, String columnaFecha) {}
+
+    private static final TablaLog LOGIN_LOGS = new TablaLog("login_logs", List.of(
+            "id", "id_usuario", "correo", "rol", "fecha_actividad", "sitio", "resultado", "descripcion", "ip", "tipo_evento"),
+            "fecha_actividad");
+
+    private static final TablaLog SYSTEM_LOGS = new TablaLog("system_logs", List.of(
+            "id", "id_usuario", "correo", "rol", "fecha_actividad", "sitio", "tipo_evento", "resultado", "descripcion", "ip"),
+            "fecha_actividad");
+
+    private static final TablaLog EMAILS_LOGS = new TablaLog("emails_logs", List.of(
+            "id", "id_usuario", "correo_destinatario", "tipo_evento", "asunto", "cuerpo", "fecha_envio", "estado",
+            "intentos", "proximo_intento", "ultimo_error"),
+            "fecha_envio");
+
+    private final ExportacionJdbcRepository exportacionJdbcRepository;
+    private final SystemLogService systemLogService;
+
+    public StreamingResponseBody exportarUsuarios(Usuario solicitante, Sitio sitio, String ip) {
+        return exportar(solicitante, sitio, ip, "usuarios", List.of("id", "correo", "nombre", "apellido_paterno", "apellido_materno",
+                "rol", "status", "telefono", "genero", "fecha_registro"), fila ->
+                exportacionJdbcRepository.recorrerUsuarios(u -> fila.accept(new Object[]{
+                        u.id(), u.correo(), u.nombre(), u.apellidoPaterno(), u.apellidoMaterno(),
+                        u.rol(), u.status(), u.telefono(), u.genero(), u.fechaRegistro()
+                })));
+    }
+
+    public StreamingResponseBody exportarUsuarioContratos(Usuario solicitante, Sitio sitio, String ip) {
+        return exportar(solicitante, sitio, ip, "usuario_contratos", List.of("id", "usuario_id", "nombre", "apellido_paterno", "apellido_materno",
+                "usuario_eliminado", "contrato_id", "puesto", "numero_contrato", "fecha_asignacion", "status",
+                "observaciones"), fila ->
+                exportacionJdbcRepository.recorrerUsuarioContratos(uc -> {
+                    // El vínculo apunta al usuario activo o a su respaldo en usuarios_eliminados
+                    UsuarioSimple usuario = uc.usuario() != null ? uc.usuario() : uc.usuarioEliminado();
+                    fila.accept(new Object[]{
+                            uc.id(),
+                            usuario != null ? usuario.id() : null,
+                            usuario != null ? usuario.nombre() : null,
+                            usuario != null ? usuario.apellidoPaterno() : null,
+                            usuario != null ? usuario.apellidoMaterno() : null,
+                            uc.usuarioEliminado() != null ? "SI" : "NO",
+                            uc.contrato().id(), uc.contrato().puesto(),
+                            uc.numeroContrato(), uc.fechaAsignacion(), uc.status(), uc.observaciones()
+                    });
+                }));
+    }
+
+    public StreamingResponseBody exportarLogsLogin(Usuario solicitante, Sitio sitio, String ip, LogFiltro filtro) {
+        return exportarLogs(solicitante, sitio, ip, LOGIN_LOGS, filtro);
+    }
+
+    public StreamingResponseBody exportarLogsSistema(Usuario solicitante, Sitio sitio, String ip, LogFiltro filtro) {
+        return exportarLogs(solicitante, sitio, ip, SYSTEM_LOGS, filtro);
+    }
+
+    // emails_logs solo tiene evento y fecha de los criterios de LogFiltro
+    public StreamingResponseBody exportarLogsCorreos(Usuario solicitante, Sitio sitio, String ip, LogFiltro filtro) {
+        return exportarLogs(solicitante, sitio, ip, EMAILS_LOGS, new LogFiltro(filtro.evento(), null, null, null, null, null,
+                filtro.desde(), filtro.hasta()));
+    }
+
+    private StreamingResponseBody exportarLogs(Usuario solicitante, Sitio sitio, String ip, TablaLog tabla, LogFiltro filtro) {
+        return exportar(solicitante, sitio, ip, tabla.nombre() + describir(filtro), tabla.columnas(), fila ->
+                exportacionJdbcRepository.recorrerLogs(tabla.nombre(), tabla.columnas(), tabla.columnaFecha(), filtro, fila));
+    }
+
+    // La bitácora se escribe en el hilo de la descarga, cuando ya se conoce el número de filas
+    private StreamingResponseBody exportar(Usuario solicitante, Sitio sitio, String ip, String descripcion,
+                                           List<String> encabezado, Consumer<Consumer<Object[]>> recorrer) {
+        return salida -> {
+            long[] filas = {0};
+            try {
+                escribir(salida, encabezado, recorrer, filas);
+            } catch (IOException | RuntimeException e) {
+                systemLogService.registrarLogUsuario(solicitante, Evento.EXPORTACION_ERROR, Resultado.FALLO, sitio, ip,
+                        "Exportación de " + descripcion + " interrumpida tras " + filas[0] + " filas: " + e.getMessage());
+                throw e;
+            }
+            systemLogService.registrarLogUsuario(solicitante, Evento.EXPORTACION_EXITOSO, Resultado.EXITO, sitio, ip,
+                    descripcion + ": " + filas[0] + " filas");
+        };
+    }
+
+    private void escribir(OutputStream salida, List<String> encabezado, Consumer<Consumer<Object[]>> recorrer,
+                          long[] filas) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        writer.write('\uFEFF'); // BOM para que Excel detecte UTF-8
+        writer.write(String.join(",", encabezado));
+        writer.write("\r\n");
+
+        try {
+            recorrer.accept(fila -> {
+                try {
+                    for (int i = 0; i < fila.length; i++) {
+                        if (i > 0) writer.write(',');
+                        writer.write(CsvUtils.escapar(formatear(fila[i])));
+                    }
+                    writer.write("\r\n");
+                    filas[0]++;
+                } catch (IOException e) {
+                    // Cliente desconectado: se aborta el recorrido y se libera el cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Solo los criterios usados, p. ej. " [evento=LOGIN_FALLIDO, desde=2025-01-01 00:00:00]"
+    private static String describir(LogFiltro filtro) {
+        StringJoiner criterios = new StringJoiner(", ", " [", "]").setEmptyValue("");
+        if (filtro.evento() != null) criterios.add("evento=" + filtro.evento());
+        if (filtro.resultado() != null) criterios.add("resultado=" + filtro.resultado());
+        if (filtro.sitio() != null) criterios.add("sitio=" + filtro.sitio());
+        if (filtro.rol() != null) criterios.add("rol=" + filtro.rol());
+        if (filtro.ip() != null) criterios.add("ip=" + filtro.ip());
+        if (filtro.correo() != null) criterios.add("correo=" + filtro.correo());
+        if (filtro.desde() != null) criterios.add("desde=" + formatear(filtro.desde()));
+        if (filtro.hasta() != null) criterios.add("hasta=" + formatear(filtro.hasta()));
+        return criterios.toString();
+    }
+
+    private static Object formatear(Object valor) {
+        if (valor instanceof LocalDateTime fecha) return FORMATO_FECHA.format(fecha);
+        if (valor instanceof Date fecha) {
+            return FORMATO_FECHA.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(fecha.getTime()), ZoneId.systemDefault()));
+        }
+        return valor;
+    }
+}
@@ -3,12 +3,19 @@ package com.Tapia.ProyectoResidencia.Service;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
 import com.Tapia.ProyectoResidencia.Model.IpBlock;
 import com.Tapia.ProyectoResidencia.Repository.IpBlockRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Service
 @RequiredArgsConstructor
@@ -19,32 +26,87 @@ public class IpBlockService {
 
     private static final int MAX_INTENTOS_IP = 5;
     private static final int BLOQUEO_MINUTOS = 15;
+    private static final long VENTANA_MS = BLOQUEO_MINUTOS * 60_000L; // ventana deslizante de intentos
 
-    public void registrarIntentoFallido(String ip) {
-        IpBlock ipBlock = ipBlockRepository.findByIp(ip).orElse(new IpBlock());
-        ipBlock.setIp(ip);
-        ipBlock.setIntentosFallidos(ipBlock.getIntentosFallidos() + 1);
+    // Contadores en memoria por IP; el mapa concurrente ya reparte la contención por segmentos
+    private final ConcurrentMap<String, VentanaIntentos> ventanas = new ConcurrentHashMap<>();
 
-        if (ipBlock.getIntentosFallidos() >= MAX_INTENTOS_IP) {
-            Date hasta = Date.from(Instant.now().plus(BLOQUEO_MINUTOS, ChronoUnit.MINUTES));
-            ipBlock.setBloqueadaHasta(hasta);
-            emailLogService.notificarAdministradores(null, Evento.POSIBLE_ATAQUE_IP, hasta, ip);
+    // Al arrancar se recuperan los bloqueos vigentes que quedaron persistidos
+    @PostConstruct
+    void cargarBloqueosVigentes() {
+        long ahora = System.currentTimeMillis();
+        for (IpBlock ipBlock : ipBlockRepository.findByBloqueadaHastaAfter(new Date(ahora))) {
+            ventanas.computeIfAbsent(ipBlock.getIp(), ip -> new VentanaIntentos())
+                    .bloqueadaHasta.set(ipBlock.getBloqueadaHasta().getTime());
         }
+    }
 
-        ipBlockRepository.save(ipBlock);
+    public void registrarIntentoFallido(String ip) {
+        long ahora = System.currentTimeMillis();
+        VentanaIntentos ventana = ventanas.computeIfAbsent(ip, k -> new VentanaIntentos());
+
+        // El intento que completa el límite dentro de la ventana bloquea la IP
+        if (ventana.registrar(ahora) >= MAX_INTENTOS_IP) {
+            long anterior = ventana.bloqueadaHasta.get();
+            long hasta = ahora + BLOQUEO_MINUTOS * 60_000L;
+            // Solo el hilo que gana el CAS persiste y notifica el bloqueo
+            if (anterior <= ahora && ventana.bloqueadaHasta.compareAndSet(anterior, hasta)) {
+                persistirBloqueo(ip, new Date(hasta));
+                emailLogService.notificarAdministradores(null, Evento.POSIBLE_ATAQUE_IP, new Date(hasta), ip);
+            }
+        }
     }
 
     public boolean estaBloqueada(String ip) {
-        return ipBlockRepository.findByIp(ip)
-                .map(b -> b.getBloqueadaHasta() != null && b.getBloqueadaHasta().after(new Date()))
-                .orElse(false);
+        VentanaIntentos ventana = ventanas.get(ip);
+        return ventana != null && ventana.bloqueadaHasta.get() > System.currentTimeMillis();
     }
 
     public void limpiarIntentos(String ip) {
-        ipBlockRepository.findByIp(ip).ifPresent(ipBlock -> {
-            ipBlock.setIntentosFallidos(0);
-            ipBlock.setBloqueadaHasta(null);
-            ipBlockRepository.save(ipBlock);
-        });
+        // El registro persistido no se toca: un bloqueo vencido no tiene efecto al recargar
+        ventanas.remove(ip);
+    }
+
+    // Libera las IPs sin intentos recientes ni bloqueo vigente para acotar la memoria
+    @Scheduled(fixedDelay = 60_000)
+    public void purgarVentanasInactivas() {
+        long ahora = System.currentTimeMillis();
+        ventanas.entrySet().removeIf(e -> e.getValue().inactiva(ahora));
+    }
+
+    // Solo los eventos de bloqueo llegan a la BD (auditoría y recuperación tras reinicio)
+    private void persistirBloqueo(String ip, Date hasta) {
+        IpBlock ipBlock = ipBlockRepository.findByIp(ip).orElse(new IpBlock());
+        ipBlock.setIp(ip);
+        ipBlock.setIntentosFallidos(MAX_INTENTOS_IP);
+        ipBlock.setBloqueadaHasta(hasta);
+        ipBlockRepository.save(ipBlock);
+    }
+
+    // Anillo con las marcas de tiempo de los últimos MAX_INTENTOS_IP intentos, sin bloqueos
+    private static final class VentanaIntentos {
+        private final AtomicLongArray intentos = new AtomicLongArray(MAX_INTENTOS_IP);
+        private final AtomicInteger siguiente = new AtomicInteger();
+        private final AtomicLong bloqueadaHasta = new AtomicLong();
+
+        // Registra el intento y devuelve cuántos caen dentro de la ventana
+        int registrar(long ahora) {
+            int posicion = Math.floorMod(siguiente.getAndIncrement(), MAX_INTENTOS_IP);
+            intentos.set(posicion, ahora);
+
+            int enVentana = 0;
+            for (int i = 0; i < MAX_INTENTOS_IP; i++) {
+                if (ahora - intentos.get(i) < VENTANA_MS) enVentana++;
+            }
+            return enVentana;
+        }
+
+        boolean inactiva(long ahora) {
+            if (bloqueadaHasta.get() > ahora) return false;
+            for (int i = 0; i < MAX_INTENTOS_IP; i++) {
+                if (ahora - intentos.get(i) < VENTANA_MS) return false;
+            }
+            return true;
+        }
     }
 }
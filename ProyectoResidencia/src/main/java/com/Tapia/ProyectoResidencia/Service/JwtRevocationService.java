@@ -0,0 +1,70 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.JwtClaims;
+import com.Tapia.ProyectoResidencia.Utils.JwtUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revocaciones en memoria del proceso: solo las ve la instancia donde se modificó el usuario.
+// Por eso jwt.stateless=true es válido únicamente con una sola instancia; detrás de un balanceador,
+// otra instancia seguiría aceptando el rol firmado de un token revocado hasta que expire
+@Service
+public class JwtRevocationService {
+
+    // Correo → instante a partir del cual los tokens emitidos antes ya no son confiables
+    private final Map<String, Instant> revocaciones = new ConcurrentHashMap<>();
+
+    // Los tokens emitidos antes del arranque no se conocen (el mapa no se persiste)
+    private final Instant inicio = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final long expirationTime; // en milisegundos, vida máxima de un access token
+
+    public JwtRevocationService(@Value("${jwt.expiration}") long expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    // Se llama cuando cambia el rol, correo o status del usuario, o cuando se elimina
+    public void invalidarTokens(String correo) {
+        if (correo == null) return;
+
+        registrarRevocacion(correo);
+
+        // Un token emitido antes del commit aún pudo leer el rol anterior: se vuelve a marcar al terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    registrarRevocacion(correo);
+                }
+            });
+        }
+    }
+
+    private void registrarRevocacion(String correo) {
+        // "iat" viene en segundos: se trunca para comparar con la misma precisión
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revocaciones.put(correo, ahora);
+
+        // Una revocación más antigua que la vida del token (más la tolerancia de reloj con la que
+        // JwtUtils aún lo acepta) ya no afecta a ningún token vigente
+        Instant limite = ahora.minusMillis(expirationTime).minusSeconds(JwtUtils.ALLOWED_CLOCK_SKEW_SECONDS);
+        revocaciones.values().removeIf(instante -> instante.isBefore(limite));
+    }
+
+    // true si los claims pueden usarse tal cual, sin consultar la base de datos
+    public boolean esConfiable(JwtClaims claims) {
+        if (claims.rol() == null || claims.emitidoEn() == null) return false;
+
+        Instant corte = revocaciones.getOrDefault(claims.correo(), inicio);
+        if (corte.isBefore(inicio)) corte = inicio;
+
+        return claims.emitidoEn().isAfter(corte);
+    }
+}
@@ -0,0 +1,179 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.LocalidadResponse;
+import com.Tapia.ProyectoResidencia.Repository.LocalidadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Índice en memoria para el autocompletado de localidades: mapas ordenados por clave normalizada
+// (sin acentos, minúsculas) donde buscar un prefijo es un subMap. Claves: nombre completo, cada palabra
+// del nombre y número de localidad. Se mantiene al día con los cambios ya confirmados, sin ir a MySQL
+@Service
+@RequiredArgsConstructor
+public class LocalidadIndiceService {
+
+    private static final Logger logger = Logger.getLogger(LocalidadIndiceService.class.getName());
+    private static final char SEPARADOR = '\u0000'; // menor que cualquier carácter: no altera el orden del prefijo
+
+    private final LocalidadRepository localidadRepository;
+
+    private volatile Indice indice;
+
+    private static final class Indice {
+        // clave + SEPARADOR + id → localidad
+        final ConcurrentSkipListMap<String, LocalidadResponse> global = new ConcurrentSkipListMap<>();
+        // municipioId + SEPARADOR + clave + SEPARADOR + id → localidad
+        final ConcurrentSkipListMap<String, LocalidadResponse> porMunicipio = new ConcurrentSkipListMap<>();
+        // id → entradas de ambos mapas, para quitar o reemplazar una localidad
+        final Map<Long, List<String[]>> entradas = new ConcurrentHashMap<>();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            // La primera búsqueda vuelve a intentarlo
+            logger.log(Level.WARNING, "No se pudo construir el índice de localidades: {0}", e.getMessage());
+        }
+    }
+
+    public List<LocalidadResponse> buscar(String texto, String municipioId, int limite) {
+        Indice actual = asegurar();
+        String prefijo = normalizar(texto);
+
+        NavigableMap<String, LocalidadResponse> rango;
+        if (municipioId != null && !municipioId.isBlank()) {
+            String base = municipioId + SEPARADOR + prefijo;
+            rango = actual.porMunicipio.subMap(base, true, base + Character.MAX_VALUE, false);
+        } else {
+            rango = actual.global.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+        }
+
+        // Una localidad puede coincidir por varias claves: se devuelve una sola vez
+        Map<Long, LocalidadResponse> resultado = new LinkedHashMap<>();
+        for (LocalidadResponse l : rango.values()) {
+            resultado.putIfAbsent(l.id(), l);
+            if (resultado.size() >= limite) break;
+        }
+        return new ArrayList<>(resultado.values());
+    }
+
+    // Alta o cambio de una localidad, aplicado al confirmar la transacción
+    public void registrar(LocalidadResponse localidad) {
+        alConfirmar(() -> {
+            // Se lee dentro del candado: un reconstruir() en curso publicaría un índice sin este cambio
+            synchronized (this) {
+                Indice actual = indice;
+                if (actual == null) return; // se cargará completo en la primera búsqueda
+                quitar(actual, localidad.id());
+                agregar(actual, localidad);
+            }
+        });
+    }
+
+    public void eliminar(Long id) {
+        alConfirmar(() -> {
+            synchronized (this) {
+                Indice actual = indice;
+                if (actual == null) return;
+                quitar(actual, id);
+            }
+        });
+    }
+
+    // Cambios de municipio (nombre o id) afectan a todas sus localidades: se reconstruye completo
+    public void reconstruirAlConfirmar() {
+        alConfirmar(this::reconstruir);
+    }
+
+    public synchronized void reconstruir() {
+        Indice nuevo = new Indice();
+        localidadRepository.findAllConMunicipio().forEach(l -> agregar(nuevo, new LocalidadResponse(l)));
+        indice = nuevo;
+        logger.log(Level.INFO, "Índice de localidades construido: {0} localidades", nuevo.entradas.size());
+    }
+
+    private Indice asegurar() {
+        Indice actual = indice;
+        if (actual != null) return actual;
+        synchronized (this) {
+            if (indice == null) reconstruir();
+            return indice;
+        }
+    }
+
+    private static void agregar(Indice indice, LocalidadResponse l) {
+        List<String[]> claves = new ArrayList<>();
+        for (String clave : claves(l)) {
+            String global = clave + SEPARADOR + l.id();
+            String municipal = l.municipioId() + SEPARADOR + global;
+            indice.global.put(global, l);
+            indice.porMunicipio.put(municipal, l);
+            claves.add(new String[]{global, municipal});
+        }
+        indice.entradas.put(l.id(), claves);
+    }
+
+    private static void quitar(Indice indice, Long id) {
+        List<String[]> claves = indice.entradas.remove(id);
+        if (claves == null) return;
+        for (String[] c : claves) {
+            indice.global.remove(c[0]);
+            indice.porMunicipio.remove(c[1]);
+        }
+    }
+
+    private static List<String> claves(LocalidadResponse l) {
+        List<String> claves = new ArrayList<>();
+        String nombre = normalizar(l.nombre());
+        if (!nombre.isEmpty()) {
+            claves.add(nombre);
+            // "san juan de dios" también se encuentra escribiendo "juan" o "dios"
+            for (int i = nombre.indexOf(' '); i >= 0; i = nombre.indexOf(' ', i + 1)) {
+                claves.add(nombre.substring(i + 1));
+            }
+        }
+        String numero = normalizar(l.numeroLocalidad());
+        if (!numero.isEmpty()) claves.add(numero);
+        return claves;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
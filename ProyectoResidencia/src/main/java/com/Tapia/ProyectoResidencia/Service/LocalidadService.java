@@ -1,5 +1,6 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CatalogoSnapshot;
 import com.Tapia.ProyectoResidencia.DTO.LocalidadCreate;
 import com.Tapia.ProyectoResidencia.DTO.LocalidadResponse;
 import com.Tapia.ProyectoResidencia.Enum.*;
@@ -30,10 +31,12 @@ public class LocalidadService {
     private final UsuarioService usuarioService;
     private final SystemLogService systemLogService;
     private final MunicipioService municipioService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final LocalidadIndiceService localidadIndiceService;
 
-    // ✅ Listar todas las localidades
-    public List<Localidad> listarTodas() {
-        return localidadRepository.findAll();
+    // ✅ Listar todas las localidades (instantánea en caché)
+    public CatalogoSnapshot listarTodas() {
+        return catalogoCacheService.obtener(CatalogoCacheService.LOCALIDADES, localidadRepository::findAll);
     }
 
     public Page<LocalidadResponse> listarPaginadas(Pageable pageable) {
@@ -41,11 +44,16 @@ public class LocalidadService {
                 .map(LocalidadResponse::new);
     }
 
-    public List<LocalidadResponse> listarPorMunicipio(String municipioId) {
-        List<Localidad> localidades = localidadRepository.findByMunicipio_Id(municipioId);
-        return localidades.stream()
-                .map(LocalidadResponse::new)
-                .toList();
+    public CatalogoSnapshot listarPorMunicipio(String municipioId) {
+        return catalogoCacheService.obtener(CatalogoCacheService.LOCALIDADES + ":" + municipioId,
+                () -> localidadRepository.findByMunicipio_Id(municipioId).stream()
+                        .map(LocalidadResponse::new)
+                        .toList());
+    }
+
+    // 🔎 Autocompletado por prefijo (nombre, palabra del nombre o número), opcionalmente por municipio
+    public List<LocalidadResponse> buscar(String texto, String municipioId, int limite) {
+        return localidadIndiceService.buscar(texto, municipioId, Math.max(1, Math.min(limite, 50)));
     }
 
     // ✅ Crear localidad
@@ -66,6 +74,8 @@ public class LocalidadService {
 
         try {
             Localidad guardada = localidadRepository.save(nueva);
+            invalidarCatalogos();
+            localidadIndiceService.registrar(new LocalidadResponse(guardada));
             systemLogService.registrarLogUsuario(usuario, Evento.LOCALIDAD_REGISTER_EXITOSO, Resultado.EXITO, sitio, ip,
                     "ID: " + guardada.getId() + " - " + guardada.getNombre());
             return guardada;
@@ -95,6 +105,8 @@ public class LocalidadService {
         try {
             existente.setMunicipio(municipio);
             Localidad actualizada = localidadRepository.save(existente);
+            invalidarCatalogos();
+            localidadIndiceService.registrar(new LocalidadResponse(actualizada));
             systemLogService.registrarLogUsuario(usuario, Evento.LOCALIDAD_UPDATE_EXITOSO, Resultado.EXITO, sitio, ip,
                     "ID: " + id + " - " + actualizada.getNombre());
             return actualizada;
@@ -118,6 +130,8 @@ public class LocalidadService {
 
         try {
             localidadRepository.delete(localidad);
+            invalidarCatalogos();
+            localidadIndiceService.eliminar(id);
             systemLogService.registrarLogUsuario(usuario, eventoExito, Resultado.EXITO, sitio, ip,
                     "ID: " + id + " - " + localidad.getNombre());
 
@@ -174,6 +188,12 @@ public class LocalidadService {
         }
     }
 
+    // ✅ El catálogo de municipios incluye sus localidades: se expulsan ambos
+    private void invalidarCatalogos() {
+        catalogoCacheService.invalidar(CatalogoCacheService.LOCALIDADES);
+        catalogoCacheService.invalidar(CatalogoCacheService.MUNICIPIOS);
+    }
+
     // ✅ Obtener usuario autenticado
     private Usuario obtenerUsuario(Authentication authentication) {
         String correo = AuthUtils.extractEmailFromAuth(authentication);
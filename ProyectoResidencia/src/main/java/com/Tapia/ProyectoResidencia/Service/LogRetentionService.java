@@ -0,0 +1,134 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+// Retención de bitácoras: mueve las filas más antiguas que el horizonte a archivos NDJSON comprimidos
+// y las borra de la tabla en bloques, para que las tablas calientes no crezcan sin límite
+@Service
+@RequiredArgsConstructor
+public class LogRetentionService {
+
+    private static final Logger logger = Logger.getLogger(LogRetentionService.class.getName());
+
+    // Tabla, columna de fecha (con índice (fecha, id)) y condición extra para no archivar lo que aún está vivo
+    private record TablaLog(String nombre, String columnaFecha, String condicion) {}
+
+    private static final List<TablaLog> TABLAS = List.of(
+            new TablaLog("login_logs", "fecha_actividad", ""),
+            new TablaLog("system_logs", "fecha_actividad", ""),
+            new TablaLog("emails_logs", "fecha_envio", " AND (estado IS NULL OR estado IN ('ENVIADO', 'FALLIDO'))")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+
+    // Opt-in: borra filas de producción, así que solo corre si se habilita explícitamente
+    @Value("${app.retencion.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${app.retencion.dias:180}")
+    private int dias;
+
+    @Value("${app.retencion.lote:1000}")
+    private int lote;
+
+    // Ruta absoluta obligatoria: no se archiva en el directorio de trabajo del proceso
+    @Value("${app.retencion.directorio:}")
+    private String directorio;
+
+    @PostConstruct
+    public void validarConfiguracion() {
+        if (habilitada && (directorio.isBlank() || !Path.of(directorio).isAbsolute())) {
+            throw new IllegalStateException(
+                    "app.retencion.habilitada=true requiere una ruta absoluta en app.retencion.directorio");
+        }
+    }
+
+    @Scheduled(cron = "${app.retencion.cron:0 30 3 * * *}")
+    public void archivarLogsAntiguos() {
+        if (!habilitada || !enEjecucion.compareAndSet(false, true)) return;
+        try {
+            Date corte = Date.from(Instant.now().minus(dias, ChronoUnit.DAYS));
+            Files.createDirectories(Path.of(directorio));
+            for (TablaLog tabla : TABLAS) {
+                int archivadas = archivar(tabla, corte);
+                if (archivadas > 0) {
+                    logger.log(Level.INFO, "Retención: {0} filas de {1} archivadas (anteriores a {2})",
+                            new Object[]{archivadas, tabla.nombre(), corte});
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error en la retención de bitácoras: {0}", e.getMessage());
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private int archivar(TablaLog tabla, Date corte) throws IOException {
+        Path archivo = Path.of(directorio, tabla.nombre() + "-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".ndjson.gz");
+        String seleccion = "SELECT * FROM " + tabla.nombre()
+                + " WHERE " + tabla.columnaFecha() + " < ?" + tabla.condicion()
+                + " ORDER BY " + tabla.columnaFecha() + ", id LIMIT ?";
+
+        int total = 0;
+        while (true) {
+            // Siempre el bloque más antiguo: lo ya archivado se borró, así que no hace falta cursor
+            List<Map<String, Object>> filas = jdbcTemplate.queryForList(seleccion, new Timestamp(corte.getTime()), lote);
+            if (filas.isEmpty()) break;
+
+            escribirBloque(archivo, filas);
+            borrar(tabla.nombre(), filas);
+            total += filas.size();
+
+            if (filas.size() < lote) break;
+        }
+        return total;
+    }
+
+    // Cada bloque es un miembro gzip independiente y se cierra antes de borrar: si el proceso cae a mitad,
+    // el archivo sigue siendo legible y como mucho se repite el último bloque
+    private void escribirBloque(Path archivo, List<Map<String, Object>> filas) throws IOException {
+        try (OutputStream salida = Files.newOutputStream(archivo, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(salida), StandardCharsets.UTF_8))) {
+            for (Map<String, Object> fila : filas) {
+                writer.write(objectMapper.writeValueAsString(fila));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void borrar(String tabla, List<Map<String, Object>> filas) {
+        Object[] ids = filas.stream().map(f -> f.get("id")).toArray();
+        String marcadores = String.join(",", Collections.nCopies(ids.length, "?"));
+        jdbcTemplate.update("DELETE FROM " + tabla + " WHERE id IN (" + marcadores + ")", ids);
+    }
+}
@@ -1,28 +1,55 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CursorPage;
+import com.Tapia.ProyectoResidencia.DTO.LogCursor;
+import com.Tapia.ProyectoResidencia.DTO.LogFiltro;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Model.LoginLog;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.LogSpecifications;
 import com.Tapia.ProyectoResidencia.Repository.LoginLogRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class LoginLogService {
 
     private final LoginLogRepository loginLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
-    public Page<LoginLog> listarLogsLogin(Pageable pageable) {
-        int pageSize = Math.min(pageable.getPageSize(), 100);
-        Pageable safePageable = PageRequest.of(pageable.getPageNumber(), pageSize);
-        return loginLogRepository.findAllByOrderByFechaActividadDesc(safePageable);
+    // Listado por cursor (keyset) sobre (fecha, id): costo constante en cualquier página y sin COUNT
+    public CursorPage<LoginLog> listarLogsLogin(String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<LoginLog> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = loginLogRepository.findPrimeraPagina(limite);
+        } else {
+            LogCursor posicion = LogCursor.decodificar(cursor);
+            filas = loginLogRepository.findPaginaDespuesDe(posicion.fecha(), posicion.id(), limite);
+        }
+        return CursorPage.of(filas, tamano, log -> new LogCursor(log.getFechaActividad(), log.getId()));
+    }
+
+    // Búsqueda combinando cualquier criterio del filtro, paginada por el mismo cursor (fechaActividad, id)
+    public CursorPage<LoginLog> buscarLogsLogin(LogFiltro filtro, String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        LogCursor posicion = (cursor == null || cursor.isBlank()) ? null : LogCursor.decodificar(cursor);
+
+        List<LoginLog> filas = loginLogRepository.findBy(LogSpecifications.filtrar(filtro, posicion), q -> q
+                .sortBy(Sort.by(Sort.Direction.DESC, "fechaActividad", "id"))
+                .limit(tamano + 1)
+                .all());
+        return CursorPage.of(filas, tamano, log -> new LogCursor(log.getFechaActividad(), log.getId()));
     }
 
     public void registrarLogsUsuario(Usuario usuario, Evento evento, Resultado resultado, Sitio sitio, String ip, String id) {
@@ -195,6 +222,6 @@ public class LoginLogService {
         log.setTipoEvento(tipoEvento != null ? tipoEvento : Evento.DESCONOCIDO);
         log.setFechaActividad(Date.from(Instant.now()));
         log.setIp(ip);
-        loginLogRepository.save(log);
+        auditLogWriter.registrar(log);
     }
 }
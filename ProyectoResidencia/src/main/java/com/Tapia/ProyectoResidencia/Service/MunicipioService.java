@@ -1,5 +1,6 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CatalogoSnapshot;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Model.Municipio;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
@@ -25,10 +26,12 @@ public class MunicipioService {
     private final MunicipioRepository municipioRepository;
     private final UsuarioService usuarioService;
     private final SystemLogService systemLogService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final LocalidadIndiceService localidadIndiceService;
 
-    // ✅ Listar todos los municipios
-    public List<Municipio> listarTodos() {
-        return municipioRepository.findAll();
+    // ✅ Listar todos los municipios (instantánea en caché)
+    public CatalogoSnapshot listarTodos() {
+        return catalogoCacheService.obtener(CatalogoCacheService.MUNICIPIOS, municipioRepository::findAllConLocalidades);
     }
 
     // ✅ Crear municipio
@@ -75,6 +78,7 @@ public class MunicipioService {
 
             // Eliminar el registro anterior
             municipioRepository.deleteById(id);
+            invalidarCatalogos();
 
             systemLogService.registrarLogUsuario(usuario, Evento.MUNICIPIO_UPDATE_EXITOSO, Resultado.EXITO, sitio, ip,
                     "Id anterior: " + id + " Nuevo Id:  " + nuevo.getId() + " Nombre: " + nuevo.getNombre());
@@ -100,6 +104,7 @@ public class MunicipioService {
         try {
             String nombre = municipio.getNombre();
             municipioRepository.delete(municipio);
+            invalidarCatalogos();
             systemLogService.registrarLogUsuario(usuario, eventoExito, Resultado.EXITO, sitio, ip, id + " - " + nombre);
 
         } catch (DataIntegrityViolationException e) {
@@ -155,6 +160,7 @@ public class MunicipioService {
 
         try {
             Municipio m = municipioRepository.save(municipio);
+            invalidarCatalogos();
             systemLogService.registrarLogUsuario(usuario, evento, Resultado.EXITO, sitio, ip, m.getId() + " - " + m.getNombre());
             return m;
 
@@ -164,6 +170,13 @@ public class MunicipioService {
         }
     }
 
+    // ✅ Las localidades incluyen el nombre del municipio: se expulsan ambos catálogos y el índice
+    private void invalidarCatalogos() {
+        catalogoCacheService.invalidar(CatalogoCacheService.MUNICIPIOS);
+        catalogoCacheService.invalidar(CatalogoCacheService.LOCALIDADES);
+        localidadIndiceService.reconstruirAlConfirmar();
+    }
+
     // ✅ Obtener usuario autenticado
     private Usuario obtenerUsuario(Authentication authentication) {
         String correo = AuthUtils.extractEmailFromAuth(authentication);
@@ -0,0 +1,64 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Repository.NotificacionUsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Contador de notificaciones no leídas por usuario para el badge del frontend. Se recalcula con un
+// COUNT indexado solo cuando algo cambió; mientras tanto cada consulta es una lectura en memoria
+@Service
+public class NotificacionContadorService {
+
+    private final NotificacionUsuarioRepository notificacionUsuarioRepository;
+    private final Cache<Long, Long> noLeidas;
+
+    public NotificacionContadorService(NotificacionUsuarioRepository notificacionUsuarioRepository,
+                                       @Value("${app.cache.notificaciones.max-size:10000}") long maxSize,
+                                       @Value("${app.cache.notificaciones.ttl-seconds:600}") long ttlSeconds) {
+        this.notificacionUsuarioRepository = notificacionUsuarioRepository;
+        this.noLeidas = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public long contarNoLeidas(Long usuarioId) {
+        return noLeidas.get(usuarioId, notificacionUsuarioRepository::countByUsuarioIdAndLeidaFalse);
+    }
+
+    // Conteo recién leído de BD, para eventos que se publican justo después del commit
+    public long recontarNoLeidas(Long usuarioId) {
+        long conteo = notificacionUsuarioRepository.countByUsuarioIdAndLeidaFalse(usuarioId);
+        noLeidas.put(usuarioId, conteo);
+        return conteo;
+    }
+
+    // Se llama al entregar, leer, resolver o eliminar notificaciones del usuario
+    public void invalidar(Long usuarioId) {
+        if (usuarioId == null) return;
+
+        noLeidas.invalidate(usuarioId);
+
+        // Una consulta concurrente pudo recontar antes del commit: se expulsa otra vez al terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    noLeidas.invalidate(usuarioId);
+                }
+            });
+        }
+    }
+
+    // Difusiones masivas: expulsa solo los conteos en caché del rango de ids ya entregado (desde, hasta],
+    // sin tocar la BD ni los badges del resto de los usuarios
+    public void invalidarRango(long desde, long hasta) {
+        noLeidas.asMap().keySet().removeIf(id -> id > desde && id <= hasta);
+    }
+}
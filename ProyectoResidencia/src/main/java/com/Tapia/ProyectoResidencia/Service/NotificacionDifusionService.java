@@ -0,0 +1,150 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.DifusionProgreso;
+import com.Tapia.ProyectoResidencia.DTO.DifusionRequest;
+import com.Tapia.ProyectoResidencia.DTO.NotificacionEvento;
+import com.Tapia.ProyectoResidencia.Enum.*;
+import com.Tapia.ProyectoResidencia.Exception.InvalidOperationException;
+import com.Tapia.ProyectoResidencia.Model.Notification;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.NotificacionUsuarioRepository;
+import com.Tapia.ProyectoResidencia.Repository.NotificationRepository;
+import com.Tapia.ProyectoResidencia.Repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Difusión de notificaciones administrativas a todos los usuarios de un rol y/o status.
+// La petición solo crea la notificación y devuelve un id; la entrega corre en segundo plano
+// con INSERT ... SELECT por bloques de id de usuario, cada bloque en su propia transacción
+@Service
+public class NotificacionDifusionService {
+
+    private static final Logger logger = Logger.getLogger(NotificacionDifusionService.class.getName());
+
+    private final NotificationRepository notificationRepository;
+    private final NotificacionUsuarioRepository notificacionUsuarioRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final SystemLogService systemLogService;
+    private final NotificacionContadorService notificacionContadorService;
+    private final NotificacionStreamService notificacionStreamService;
+    private final ThreadPoolTaskExecutor ejecutor;
+
+    // Progreso consultable durante una hora después del último cambio
+    private final Cache<String, DifusionProgreso> progresos = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @Value("${app.difusion.lote:1000}")
+    private int lote;
+
+    public NotificacionDifusionService(NotificationRepository notificationRepository,
+                                       NotificacionUsuarioRepository notificacionUsuarioRepository,
+                                       UsuarioRepository usuarioRepository,
+                                       SystemLogService systemLogService,
+                                       NotificacionContadorService notificacionContadorService,
+                                       NotificacionStreamService notificacionStreamService,
+                                       @Qualifier("difusionExecutor") ThreadPoolTaskExecutor ejecutor) {
+        this.notificationRepository = notificationRepository;
+        this.notificacionUsuarioRepository = notificacionUsuarioRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.systemLogService = systemLogService;
+        this.notificacionContadorService = notificacionContadorService;
+        this.notificacionStreamService = notificacionStreamService;
+        this.ejecutor = ejecutor;
+    }
+
+    public DifusionProgreso iniciar(Usuario admin, DifusionRequest request, Sitio sitio, String ip) {
+        if (request.rol() == null && request.status() == null) {
+            throw new IllegalArgumentException("Debe indicarse un rol o un status de destino.");
+        }
+
+        Notification notificacion = new Notification();
+        notificacion.setTipo(TipoNotificacion.ADMIN);
+        notificacion.setTitulo(request.titulo());
+        notificacion.setMensaje(request.mensaje());
+        notificacion.setTemplate(NotificationTemplate.CUSTOM_ADMIN);
+        notificacion.setEmisor(admin);
+        notificacion.setRolDestino(request.rol());
+        notificacion.setFechaCreacion(LocalDateTime.now());
+        Long notificacionId = notificationRepository.save(notificacion).getId();
+
+        String id = UUID.randomUUID().toString();
+        long total = usuarioRepository.contarPorRolYStatus(request.rol(), request.status());
+        DifusionProgreso inicial = new DifusionProgreso(id, notificacionId, "EN_PROCESO", total, 0,
+                LocalDateTime.now(), null, null);
+        progresos.put(id, inicial);
+
+        try {
+            ejecutor.execute(() -> difundir(inicial, admin, request, sitio, ip));
+        } catch (RejectedExecutionException e) {
+            progresos.invalidate(id);
+            notificationRepository.deleteById(notificacionId);
+            throw new InvalidOperationException("Hay demasiadas difusiones en curso. Intente más tarde.");
+        }
+        return inicial;
+    }
+
+    public DifusionProgreso obtenerProgreso(String id) {
+        DifusionProgreso progreso = progresos.getIfPresent(id);
+        if (progreso == null) {
+            throw new NoSuchElementException("Difusión no encontrada");
+        }
+        return progreso;
+    }
+
+    private void difundir(DifusionProgreso progreso, Usuario admin, DifusionRequest request, Sitio sitio, String ip) {
+        String rol = request.rol() != null ? request.rol().name() : null;
+        String status = request.status() != null ? request.status().name() : null;
+        long entregadas = 0;
+
+        try {
+            long maxId = usuarioRepository.findMaxId();
+            for (long desde = 0; desde < maxId; desde += lote) {
+                entregadas += notificacionUsuarioRepository.entregarARango(
+                        progreso.notificacionId(), desde, desde + lote, rol, status);
+                actualizar(progreso, "EN_PROCESO", entregadas, null, null);
+                notificacionContadorService.invalidarRango(desde, desde + lote);
+            }
+
+            actualizar(progreso, "COMPLETADA", entregadas, LocalDateTime.now(), null);
+            avisarConectados(progreso.notificacionId(), request);
+            systemLogService.registrarLogUsuario(admin, Evento.NOTIFICACION_DIFUSION_EXITOSO, Resultado.EXITO, sitio, ip,
+                    progreso.notificacionId() + " (" + entregadas + " destinatarios)");
+        } catch (Exception e) {
+            actualizar(progreso, "ERROR", entregadas, LocalDateTime.now(), e.getMessage());
+            systemLogService.registrarLogUsuario(admin, Evento.NOTIFICACION_DIFUSION_ERROR, Resultado.FALLO, sitio, ip,
+                    "Error al difundir notificación " + progreso.notificacionId() + ": " + e.getMessage());
+            logger.log(Level.WARNING, "Error en difusión {0}: {1}", new Object[]{progreso.id(), e.getMessage()});
+        }
+    }
+
+    // Solo los usuarios con un stream abierto que sí estaban en el criterio de la difusión
+    private void avisarConectados(Long notificacionId, DifusionRequest request) {
+        Set<Long> conectados = notificacionStreamService.usuariosConectados();
+        if (conectados.isEmpty()) return;
+
+        notificacionUsuarioRepository.findUsuarioIdsConNotificacion(notificacionId, List.copyOf(conectados))
+                .forEach(usuarioId -> notificacionStreamService.publicar(usuarioId, () -> new NotificacionEvento(
+                        "NUEVA", null, request.titulo(), request.mensaje(),
+                        notificacionContadorService.recontarNoLeidas(usuarioId))));
+    }
+
+    private void actualizar(DifusionProgreso p, String estado, long entregadas, LocalDateTime fin, String error) {
+        progresos.put(p.id(), new DifusionProgreso(p.id(), p.notificacionId(), estado, p.total(), entregadas,
+                p.inicio(), fin, error));
+    }
+}
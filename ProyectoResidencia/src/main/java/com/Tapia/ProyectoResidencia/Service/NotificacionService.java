@@ -1,5 +1,9 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CursorPage;
+import com.Tapia.ProyectoResidencia.DTO.LogCursor;
+import com.Tapia.ProyectoResidencia.DTO.NotificacionEvento;
+import com.Tapia.ProyectoResidencia.DTO.NotificacionResumen;
 import com.Tapia.ProyectoResidencia.DTO.NotificacionResponse;
 import com.Tapia.ProyectoResidencia.DTO.NotificationStatusRequest;
 import com.Tapia.ProyectoResidencia.Enum.NotificationTemplate;
@@ -9,11 +13,16 @@ import com.Tapia.ProyectoResidencia.Repository.NotificationRepository;
 import com.Tapia.ProyectoResidencia.Repository.NotificacionUsuarioRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.Tapia.ProyectoResidencia.Enum.NotificationTemplate.*;
@@ -22,9 +31,14 @@ import static com.Tapia.ProyectoResidencia.Enum.NotificationTemplate.*;
 @RequiredArgsConstructor
 public class NotificacionService {
 
+    private static final Set<NotificationTemplate> TEMPLATES_DESCARTABLES =
+            EnumSet.of(NEW_MESSAGE, CUSTOM_ADMIN);
+
     private final NotificationRepository notificationRepository;
     private final NotificacionUsuarioRepository notificacionUsuarioRepository;
     private final UsuarioService usuarioService;
+    private final NotificacionContadorService notificacionContadorService;
+    private final NotificacionStreamService notificacionStreamService;
 
     private static final Map<NotificationTemplate, String[]> SYSTEM_NOTIFICATIONS = Map.of(
             GENERAR_CONTRASENA, new String[]{"Configura tu contraseña", "Debes generar tu contraseña para poder usar todas las funcionalidades del sistema."},
@@ -35,8 +49,6 @@ public class NotificacionService {
 
     @Transactional
     public void createNotificationSystem(Usuario usuario, NotificationTemplate template) {
-        if (notificationRepository.existsByTemplateAndDestinatarios_Usuario(template, usuario)) return;
-
         String[] info = SYSTEM_NOTIFICATIONS.get(template);
         if (info != null) {
             crearNotificacionSistema(usuario, info[0], info[1], template);
@@ -44,44 +56,56 @@ public class NotificacionService {
     }
 
     private void crearNotificacionSistema(Usuario usuario, String titulo, String mensaje, NotificationTemplate template) {
-        if (notificationRepository.existsByTemplateAndDestinatarios_Usuario(template, usuario)) {
-            return; // Ya existe una notificación de este tipo para este usuario, no crear otra
+        // 1. Obtener (o crear una sola vez) la notificación compartida de la plantilla
+        Long notificacionId = obtenerIdNotificacionSistema(template, titulo, mensaje);
+
+        // 2. Entregarla al usuario con un único INSERT en notificacion_usuario; si ya la tenía no se duplica.
+        //    No se toca Notification.destinatarios, así el costo no crece con el número de destinatarios
+        if (notificacionUsuarioRepository.entregar(notificacionId, usuario.getId()) > 0) {
+            notificacionContadorService.invalidar(usuario.getId());
+            publicar(usuario.getId(), "NUEVA", null, titulo, mensaje);
         }
+    }
 
-        // 1. Crear la notificación
-        Notification notification = notificationRepository
-                .findByTemplate(template)
-                .orElseGet(() -> {
-                    Notification n = new Notification();
-                    n.setTipo(TipoNotificacion.SISTEMA);
-                    n.setTitulo(titulo);
-                    n.setMensaje(mensaje);
-                    n.setTemplate(template);
-                    n.setEmisor(null);
-                    n.setRolDestino(null);
-                    n.setFechaCreacion(LocalDateTime.now());
-                    return notificationRepository.save(n);
-                });
-
-        // 2. Crear la relación con el usuario destinatario
-        NotificacionUsuario relacion = new NotificacionUsuario();
-        relacion.setNotificacion(notification);
-        relacion.setUsuario(usuario);
-        relacion.setLeida(false);
-        relacion.setResuelta(false);
-        relacion.setFechaRecepcion(LocalDateTime.now());
-
-        // 3. Vincular ambas entidades
-        notification.getDestinatarios().add(relacion);
-        //usuario.getNotificacionesRecibidas().add(relacion);
-
-        // 4. Guardar la notificación (esto también guarda la relación por cascade)
-        notificationRepository.save(notification);
-        notificationRepository.flush(); // fuerza commit en BD
+    private Long obtenerIdNotificacionSistema(NotificationTemplate template, String titulo, String mensaje) {
+        List<Long> ids = notificationRepository.findIdsByTemplate(template);
+        if (!ids.isEmpty()) return ids.get(0);
+
+        Notification n = new Notification();
+        n.setTipo(TipoNotificacion.SISTEMA);
+        n.setTitulo(titulo);
+        n.setMensaje(mensaje);
+        n.setTemplate(template);
+        n.setEmisor(null);
+        n.setRolDestino(null);
+        n.setFechaCreacion(LocalDateTime.now());
+        return notificationRepository.save(n).getId();
     }
 
     public boolean existeNotificacionUsuario(Usuario usuario, NotificationTemplate template) {
-        return notificationRepository.existsByTemplateAndDestinatarios_Usuario(template, usuario);
+        return notificacionUsuarioRepository.existsByUsuarioIdAndNotificacion_Template(usuario.getId(), template);
+    }
+
+    public long contarNoLeidas(String correo) {
+        Usuario usuario = usuarioService.getUsuarioEntityByCorreo(correo);
+        return notificacionContadorService.contarNoLeidas(usuario.getId());
+    }
+
+    // Listado paginado por cursor (fechaRecepcion, id): solo las columnas que pinta la bandeja
+    public CursorPage<NotificacionResumen> listarNotificaciones(Long usuarioId, boolean soloNoLeidas, String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<NotificacionResumen> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = notificacionUsuarioRepository.findResumenPrimeraPagina(usuarioId, soloNoLeidas, limite);
+        } else {
+            LogCursor posicion = LogCursor.decodificar(cursor);
+            filas = notificacionUsuarioRepository.findResumenDespuesDe(usuarioId, soloNoLeidas,
+                    new Timestamp(posicion.fecha().getTime()).toLocalDateTime(), posicion.id(), limite);
+        }
+        return CursorPage.of(filas, tamano,
+                n -> new LogCursor(Timestamp.valueOf(n.fechaRecepcion()), n.idRelacion()));
     }
 
     public List<NotificacionResponse> getNotificacionesPorCorreo(String correo, boolean soloNoLeidas) {
@@ -132,77 +156,72 @@ public class NotificacionService {
 
         if (cambios) {
             notificacionUsuarioRepository.save(relacion);
+            notificacionContadorService.invalidar(usuario.getId());
+            publicar(usuario.getId(), relacion.isResuelta() ? "RESUELTA" : "LEIDA", relacion.getId(),
+                    relacion.getNotificacion().getTitulo(), relacion.getNotificacion().getMensaje());
         }
     }
 
+    // Desde el cliente solo se descartan mensajes; las plantillas del sistema (PERFIL_INCOMPLETO,
+    // GENERAR_CONTRASENA, ...) las resuelve UserService cuando la condición se corrige
     @Transactional
-    public void resolverYEliminarNotificaciones(Usuario usuario, NotificationTemplate template) {
-        // 1️⃣ Buscar relaciones pendientes de resolución
-        List<NotificacionUsuario> relaciones =
-                notificacionUsuarioRepository.findByUsuarioAndNotificacion_TemplateAndResueltaFalse(usuario, template);
+    public int descartarPorTemplate(Usuario usuario, NotificationTemplate template) {
+        if (!TEMPLATES_DESCARTABLES.contains(template)) {
+            throw new IllegalArgumentException("Las notificaciones " + template + " no se pueden descartar manualmente.");
+        }
+        return resolverYEliminarNotificaciones(usuario, template);
+    }
 
-        if (relaciones.isEmpty()) return;
+    @Transactional
+    public int resolverYEliminarNotificaciones(Usuario usuario, NotificationTemplate template) {
+        // Un solo DELETE de las relaciones pendientes del usuario con la plantilla.
+        // ❌ No tocar la tabla Notification, para mantener la notificación del sistema global
+        int resueltas = notificacionUsuarioRepository.resolverPorTemplate(usuario.getId(), template);
 
-        // 2️⃣ Marcar como resuelta y registrar fecha de lectura
-        for (NotificacionUsuario rel : relaciones) {
-            rel.setResuelta(true);
-            rel.setFechaLectura(LocalDateTime.now());
+        if (resueltas > 0) {
+            notificacionContadorService.invalidar(usuario.getId());
+            publicar(usuario.getId(), "RESUELTA", null, null, null);
         }
-        notificacionUsuarioRepository.saveAll(relaciones);
+        return resueltas;
+    }
 
-        // 3️⃣ Eliminar únicamente la relación del usuario con la notificación
-        notificacionUsuarioRepository.deleteAll(relaciones);
+    @Transactional
+    public int marcarTodasComoLeidas(Usuario usuario) {
+        int leidas = notificacionUsuarioRepository.marcarTodasLeidas(usuario.getId(), LocalDateTime.now());
+        if (leidas > 0) {
+            notificacionContadorService.invalidar(usuario.getId());
+            publicar(usuario.getId(), "LEIDA", null, null, null);
+        }
+        return leidas;
+    }
 
-        // ❌ No tocar la tabla Notification, para mantener la notificación del sistema global
+    @Transactional
+    public int marcarComoLeidas(Usuario usuario, List<Long> idsRelacion) {
+        int leidas = notificacionUsuarioRepository.marcarLeidas(usuario.getId(), idsRelacion, LocalDateTime.now());
+        if (leidas > 0) {
+            notificacionContadorService.invalidar(usuario.getId());
+            publicar(usuario.getId(), "LEIDA", null, null, null);
+        }
+        return leidas;
     }
 
     @Transactional
     public void eliminarRelacionesSistemaPorUsuario(Usuario usuario) {
-        // Buscar todas las relaciones de notificaciones del usuario
-        List<NotificacionUsuario> relacionesUsuario =
-                notificacionUsuarioRepository.findByUsuarioId(usuario.getId());
-
-        if (relacionesUsuario.isEmpty()) return;
-
-        // Filtrar las que provienen de notificaciones de tipo SISTEMA
-        List<NotificacionUsuario> relacionesSistema = relacionesUsuario.stream()
-                .filter(rel -> rel.getNotificacion() != null &&
-                        rel.getNotificacion().getTipo() == TipoNotificacion.SISTEMA)
-                .collect(Collectors.toList());
-
-        if (!relacionesSistema.isEmpty()) {
-            // 💥 Eliminar directamente los registros de la tabla notificacion_usuario
-            notificacionUsuarioRepository.deleteAll(relacionesSistema);
-            notificacionUsuarioRepository.flush();
+        // Un solo DELETE sobre las relaciones de notificaciones SISTEMA del usuario
+        if (notificacionUsuarioRepository.eliminarPorUsuarioYTipo(usuario.getId(), TipoNotificacion.SISTEMA) > 0) {
+            notificacionContadorService.invalidar(usuario.getId());
         }
     }
 
     @Transactional
-    public void redirigirRelacionesAdministrativas(Usuario usuario, UsuarioEliminado usuarioEliminado) {
-        // 1️⃣ Buscar todas las relaciones vinculadas al usuario
-        List<NotificacionUsuario> relaciones = notificacionUsuarioRepository.findByUsuarioId(usuario.getId());
-
-        if (relaciones.isEmpty()) return;
-
-        for (NotificacionUsuario relacion : relaciones) {
-            Notification notificacion = relacion.getNotificacion();
-
-            if (notificacion == null) continue;
-
-            // 2️⃣ Si es una notificación creada por ADMIN → redirigir
-            if (notificacion.getTipo() == TipoNotificacion.ADMIN) {
-                relacion.setUsuario(null);
-                relacion.setUsuarioEliminado(usuarioEliminado);
-                notificacionUsuarioRepository.save(relacion);
-
-                // 3️⃣ Si es una notificación del SISTEMA → eliminar relación
-            } else if (notificacion.getTipo() == TipoNotificacion.SISTEMA) {
-                notificacionUsuarioRepository.delete(relacion);
-            }
-        }
+    public void desvincularNotificacionesEnviadas(Usuario usuario) {
+        // Rompe el vínculo de emisor sin cargar las notificaciones enviadas
+        notificationRepository.desvincularEmisor(usuario.getId());
+    }
 
-        // 4️⃣ Forzar sincronización con la base de datos
-        notificacionUsuarioRepository.flush();
+    private void publicar(Long usuarioId, String tipo, Long idRelacion, String titulo, String mensaje) {
+        notificacionStreamService.publicar(usuarioId, () -> new NotificacionEvento(tipo, idRelacion, titulo, mensaje,
+                notificacionContadorService.recontarNoLeidas(usuarioId)));
     }
 
 }
@@ -0,0 +1,256 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.NotificacionEvento;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Registro en memoria de conexiones SSE por usuario. Publicar nunca bloquea: cada conexión tiene un
+// buffer acotado que drena un pool pequeño de envío; si el cliente no consume y el buffer se llena,
+// la conexión se cierra y el navegador se reconecta solo. Un envío atascado en un socket que no avanza
+// se interrumpe al expulsar la conexión o al pasar app.sse.envio-timeout-ms, para no acaparar el pool
+// (Tomcat además corta la escritura bloqueada al vencer server.tomcat.connection-timeout)
+@Service
+public class NotificacionStreamService {
+
+    private static final Logger logger = Logger.getLogger(NotificacionStreamService.class.getName());
+
+    private final Map<Long, Set<Conexion>> conexiones = new ConcurrentHashMap<>();
+    private final NotificacionContadorService notificacionContadorService;
+    private final ThreadPoolTaskExecutor envios;
+
+    // EventSource del navegador no puede enviar el header Authorization: el cliente pide con su Bearer un
+    // ticket de un solo uso y vida corta y lo pasa como ?ticket= al abrir el stream
+    private final Cache<String, Long> tickets;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.buffer:32}")
+    private int capacidadBuffer;
+
+    @Value("${app.sse.max-conexiones-usuario:5}")
+    private int maxConexionesUsuario;
+
+    @Value("${app.sse.envio-timeout-ms:10000}")
+    private long envioTimeoutMs;
+
+    public NotificacionStreamService(NotificacionContadorService notificacionContadorService,
+                                     @Qualifier("sseEnvioExecutor") ThreadPoolTaskExecutor envios,
+                                     @Value("${app.sse.ticket-segundos:60}") long ticketSegundos) {
+        this.notificacionContadorService = notificacionContadorService;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ticketSegundos))
+                .maximumSize(10_000)
+                .build();
+        this.envios = envios;
+    }
+
+    public String emitirTicket(Long usuarioId) {
+        String ticket = UUID.randomUUID().toString();
+        tickets.put(ticket, usuarioId);
+        return ticket;
+    }
+
+    // Devuelve el usuario del ticket y lo invalida; un ticket vencido o ya usado no abre el stream
+    public Long canjearTicket(String ticket) {
+        Long usuarioId = tickets.asMap().remove(ticket);
+        if (usuarioId == null) {
+            throw new BadCredentialsException("Ticket de stream inválido o vencido");
+        }
+        return usuarioId;
+    }
+
+    public SseEmitter suscribir(Long usuarioId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Conexion conexion = new Conexion(usuarioId, emitter, new ArrayBlockingQueue<>(capacidadBuffer));
+
+        // Alta dentro de compute: quitar() puede borrar el conjunto vacío en paralelo y la conexión
+        // quedaría en un conjunto huérfano que ya no recibe eventos
+        AtomicReference<Conexion> expulsada = new AtomicReference<>();
+        conexiones.compute(usuarioId, (id, set) -> {
+            Set<Conexion> delUsuario = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (delUsuario.size() >= maxConexionesUsuario) {
+                // Pestañas de más: se descarta la conexión más antigua que se encuentre
+                delUsuario.stream().findFirst().ifPresent(c -> {
+                    delUsuario.remove(c);
+                    expulsada.set(c);
+                });
+            }
+            delUsuario.add(conexion);
+            return delUsuario;
+        });
+        if (expulsada.get() != null) cerrar(expulsada.get());
+
+        emitter.onCompletion(() -> quitar(conexion));
+        emitter.onTimeout(() -> cerrar(conexion));
+        emitter.onError(e -> quitar(conexion));
+
+        // Estado inicial para que el cliente dibuje el badge sin una petición extra
+        encolar(conexion, SseEmitter.event().name("conteo")
+                .data(new NotificacionEvento("CONTEO", null, null, null, notificacionContadorService.contarNoLeidas(usuarioId))));
+        return emitter;
+    }
+
+    // Publica al usuario después del commit (o de inmediato si no hay transacción)
+    public void publicar(Long usuarioId, Supplier<NotificacionEvento> evento) {
+        if (usuarioId == null || !conexiones.containsKey(usuarioId)) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviarA(usuarioId, evento);
+                }
+            });
+        } else {
+            enviarA(usuarioId, evento);
+        }
+    }
+
+    public Set<Long> usuariosConectados() {
+        return conexiones.keySet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(envioTimeoutMs);
+        conexiones.values().forEach(set -> set.forEach(c -> {
+            long desde = c.enviandoDesde().get();
+            if (desde != 0 && desde - limite < 0) {
+                // Un envío lleva demasiado tiempo bloqueado: se libera el hilo
+                logger.log(Level.FINE, "Envío SSE atascado del usuario {0}, se cierra", c.usuarioId());
+                cerrar(c);
+            } else {
+                encolar(c, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void detener() {
+        conexiones.values().forEach(set -> set.forEach(c -> c.emitter().complete()));
+    }
+
+    private void enviarA(Long usuarioId, Supplier<NotificacionEvento> evento) {
+        Set<Conexion> delUsuario = conexiones.get(usuarioId);
+        if (delUsuario == null || delUsuario.isEmpty()) return;
+
+        NotificacionEvento datos = evento.get();
+        delUsuario.forEach(c -> encolar(c, SseEmitter.event().name("notificacion").data(datos)));
+    }
+
+    private void encolar(Conexion conexion, SseEmitter.SseEventBuilder evento) {
+        if (!conexion.buffer().offer(evento)) {
+            // Consumidor lento: buffer lleno, se expulsa
+            logger.log(Level.FINE, "Conexión SSE lenta del usuario {0}, se cierra", conexion.usuarioId());
+            cerrar(conexion);
+            return;
+        }
+        if (conexion.enviando().compareAndSet(false, true)) {
+            programar(conexion);
+        }
+    }
+
+    private void programar(Conexion conexion) {
+        try {
+            envios.execute(() -> drenar(conexion));
+        } catch (RejectedExecutionException e) {
+            // Cola de envíos llena: se cierra y el navegador se reconecta cuando haya capacidad
+            conexion.enviando().set(false);
+            cerrar(conexion);
+        }
+    }
+
+    private void drenar(Conexion conexion) {
+        synchronized (conexion) {
+            conexion.hilo().set(Thread.currentThread());
+        }
+        try {
+            SseEmitter.SseEventBuilder evento;
+            while (!conexion.cerrada().get() && (evento = conexion.buffer().poll()) != null) {
+                conexion.enviandoDesde().set(System.nanoTime());
+                conexion.emitter().send(evento);
+                conexion.enviandoDesde().set(0);
+            }
+        } catch (Exception e) {
+            cerrar(conexion);
+        } finally {
+            conexion.enviandoDesde().set(0);
+            synchronized (conexion) {
+                conexion.hilo().set(null);
+                Thread.interrupted(); // una interrupción dirigida a esta conexión no debe alcanzar a la siguiente
+            }
+            conexion.enviando().set(false);
+            if (conexion.cerrada().get()) {
+                completar(conexion);
+            } else if (!conexion.buffer().isEmpty() && conexion.enviando().compareAndSet(false, true)) {
+                // Algo pudo llegar entre el último poll y liberar la bandera
+                programar(conexion);
+            }
+        }
+    }
+
+    private void cerrar(Conexion conexion) {
+        quitar(conexion);
+        conexion.buffer().clear();
+        if (!conexion.cerrada().compareAndSet(false, true)) return;
+
+        // complete() espera al envío en curso: si otro hilo está enviando se le interrumpe y él completa
+        // el emitter al salir de drenar(), sin bloquear a quien expulsa
+        synchronized (conexion) {
+            Thread hilo = conexion.hilo().get();
+            if (hilo != null && hilo != Thread.currentThread()) {
+                hilo.interrupt();
+                return;
+            }
+        }
+        completar(conexion);
+    }
+
+    private void completar(Conexion conexion) {
+        try {
+            conexion.emitter().complete();
+        } catch (Exception ignored) {
+            // ya estaba cerrada
+        }
+    }
+
+    private void quitar(Conexion conexion) {
+        conexiones.computeIfPresent(conexion.usuarioId(), (id, set) -> {
+            set.remove(conexion);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // hilo: el del pool que drena esta conexión; enviandoDesde: nanoTime del send en curso, 0 si no hay
+    private record Conexion(Long usuarioId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> buffer,
+                            AtomicBoolean enviando, AtomicBoolean cerrada, AtomicReference<Thread> hilo,
+                            AtomicLong enviandoDesde) {
+        Conexion(Long usuarioId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> buffer) {
+            this(usuarioId, emitter, buffer, new AtomicBoolean(false), new AtomicBoolean(false),
+                    new AtomicReference<>(), new AtomicLong());
+        }
+    }
+}
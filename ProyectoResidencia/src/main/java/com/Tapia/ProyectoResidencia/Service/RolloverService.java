@@ -0,0 +1,248 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.RolloverProgreso;
+import com.Tapia.ProyectoResidencia.DTO.RolloverRequest;
+import com.Tapia.ProyectoResidencia.DTO.RolloverValidacion;
+import com.Tapia.ProyectoResidencia.Enum.*;
+import com.Tapia.ProyectoResidencia.Exception.InvalidOperationException;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.RolloverJdbcRepository;
+import com.Tapia.ProyectoResidencia.Repository.RolloverJdbcRepository.Responsable;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Rollover de ciclo: clona Zores, Ares, asignaciones y secciones (con sus localidades) de un año a otro.
+// La validación es una simulación sin escrituras; la ejecución corre en segundo plano etapa por etapa,
+// cada una en su propia transacción. Como las inserciones omiten lo que ya existe en el destino,
+// si el proceso se interrumpe basta con lanzarlo de nuevo para completarlo
+@Service
+public class RolloverService {
+
+    private static final Logger logger = Logger.getLogger(RolloverService.class.getName());
+
+    private final RolloverJdbcRepository rolloverJdbcRepository;
+    private final AnioCatalogoService anioCatalogoService;
+    private final SystemLogService systemLogService;
+    private final ThreadPoolTaskExecutor ejecutor;
+
+    // Años destino con un rollover en curso: dos ejecuciones sobre el mismo año competirían por las mismas filas
+    private final Set<String> destinosEnCurso = ConcurrentHashMap.newKeySet();
+
+    // Progreso consultable durante una hora después del último cambio
+    private final Cache<String, RolloverProgreso> progresos = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @Value("${app.rollover.lote-secciones:2000}")
+    private int loteSecciones;
+
+    public RolloverService(RolloverJdbcRepository rolloverJdbcRepository,
+                           AnioCatalogoService anioCatalogoService,
+                           SystemLogService systemLogService,
+                           @Qualifier("rolloverExecutor") ThreadPoolTaskExecutor ejecutor) {
+        this.rolloverJdbcRepository = rolloverJdbcRepository;
+        this.anioCatalogoService = anioCatalogoService;
+        this.systemLogService = systemLogService;
+        this.ejecutor = ejecutor;
+    }
+
+    // Simulación: cuenta lo que se insertaría por etapa y aplica las mismas reglas que ZoreService/AreService
+    public RolloverValidacion validar(RolloverRequest request) {
+        String origen = request.anioOrigen();
+        String destino = request.anioDestino();
+        validarAnios(origen, destino);
+        Map<Long, Long> reasignaciones = reasignaciones(request);
+
+        List<String> conflictos = new ArrayList<>();
+        conflictos.addAll(validarResponsables("zores", "Zore", Rol.SE, origen, destino, reasignaciones));
+        conflictos.addAll(validarResponsables("ares", "Are", Rol.CAE, origen, destino, reasignaciones));
+        conflictos.addAll(rolloverJdbcRepository.findAsignacionesDiferentes(origen, destino));
+
+        List<RolloverValidacion.Etapa> etapas = List.of(
+                new RolloverValidacion.Etapa(EtapaRollover.ZORES.name(),
+                        rolloverJdbcRepository.contarEnAnio("zores", origen),
+                        rolloverJdbcRepository.findResponsablesPendientes("zores", origen, destino).size()),
+                new RolloverValidacion.Etapa(EtapaRollover.ARES.name(),
+                        rolloverJdbcRepository.contarEnAnio("ares", origen),
+                        rolloverJdbcRepository.findResponsablesPendientes("ares", origen, destino).size()),
+                new RolloverValidacion.Etapa(EtapaRollover.ASIGNACIONES.name(),
+                        rolloverJdbcRepository.contarEnAnio("asignaciones_zore_are", origen),
+                        rolloverJdbcRepository.contarAsignacionesPendientes(origen, destino)),
+                new RolloverValidacion.Etapa(EtapaRollover.SECCIONES.name(),
+                        rolloverJdbcRepository.contarEnAnio("secciones", origen),
+                        rolloverJdbcRepository.contarSeccionesPendientes(origen, destino))
+        );
+
+        if (etapas.get(0).origen() == 0 && etapas.get(1).origen() == 0) {
+            conflictos.add("No hay Zores ni Ares registradas en el año " + origen);
+        }
+        return new RolloverValidacion(origen, destino, etapas, conflictos, conflictos.isEmpty());
+    }
+
+    public RolloverProgreso iniciar(Usuario admin, RolloverRequest request, Sitio sitio, String ip) {
+        RolloverValidacion validacion = validar(request);
+        if (!validacion.valida()) {
+            systemLogService.registrarLogUsuario(admin, Evento.ROLLOVER_ESTRUCTURA_FALLIDO, Resultado.FALLO, sitio, ip,
+                    "Rollover " + request.anioOrigen() + " → " + request.anioDestino() + " rechazado: "
+                            + String.join("; ", validacion.conflictos()));
+            throw new IllegalArgumentException("No se puede clonar la estructura: " + String.join("; ", validacion.conflictos()));
+        }
+        if (!destinosEnCurso.add(request.anioDestino())) {
+            throw new InvalidOperationException("Ya hay un rollover en curso hacia el año " + request.anioDestino());
+        }
+
+        String id = UUID.randomUUID().toString();
+        RolloverProgreso inicial = new RolloverProgreso(id, request.anioOrigen(), request.anioDestino(), "EN_PROCESO",
+                null, 0, EtapaRollover.values().length, 0, LocalDateTime.now(), null, null);
+        progresos.put(id, inicial);
+
+        try {
+            ejecutor.execute(() -> ejecutar(inicial, admin, request, sitio, ip));
+        } catch (RejectedExecutionException e) {
+            destinosEnCurso.remove(request.anioDestino());
+            progresos.invalidate(id);
+            throw new InvalidOperationException("Hay demasiados rollovers en curso. Intente más tarde.");
+        }
+        return inicial;
+    }
+
+    public RolloverProgreso obtenerProgreso(String id) {
+        RolloverProgreso progreso = progresos.getIfPresent(id);
+        if (progreso == null) {
+            throw new NoSuchElementException("Rollover no encontrado");
+        }
+        return progreso;
+    }
+
+    private void ejecutar(RolloverProgreso progreso, Usuario admin, RolloverRequest request, Sitio sitio, String ip) {
+        String origen = request.anioOrigen();
+        String destino = request.anioDestino();
+        Map<Long, Long> reasignaciones = reasignaciones(request);
+        Map<EtapaRollover, Long> insertadas = new EnumMap<>(EtapaRollover.class);
+        EtapaRollover etapa = null;
+
+        try {
+            for (EtapaRollover actual : EtapaRollover.values()) {
+                etapa = actual;
+                actualizar(progreso, "EN_PROCESO", etapa, insertadas, null, null);
+                long filas = switch (etapa) {
+                    case ZORES -> rolloverJdbcRepository.clonarResponsables("zores", origen, destino, reasignaciones);
+                    case ARES -> rolloverJdbcRepository.clonarResponsables("ares", origen, destino, reasignaciones);
+                    case ASIGNACIONES -> rolloverJdbcRepository.clonarAsignaciones(origen, destino);
+                    case SECCIONES -> clonarSecciones(progreso, insertadas, origen, destino);
+                };
+                insertadas.put(etapa, filas);
+            }
+
+            registrarAnios(destino);
+            actualizar(progreso, "COMPLETADO", etapa, insertadas, LocalDateTime.now(), null);
+            systemLogService.registrarLogUsuario(admin, Evento.ROLLOVER_ESTRUCTURA_EXITOSO, Resultado.EXITO, sitio, ip,
+                    origen + " → " + destino + " " + insertadas);
+        } catch (Exception e) {
+            // Lo confirmado por etapas anteriores se conserva; relanzar el rollover completa lo que faltó
+            registrarAnios(destino);
+            actualizar(progreso, "ERROR", etapa, insertadas, LocalDateTime.now(), e.getMessage());
+            systemLogService.registrarLogUsuario(admin, Evento.ROLLOVER_ESTRUCTURA_ERROR, Resultado.FALLO, sitio, ip,
+                    "Error en rollover " + origen + " → " + destino + " (etapa " + etapa + "): " + e.getMessage());
+            logger.log(Level.WARNING, "Error en rollover {0}: {1}", new Object[]{progreso.id(), e.getMessage()});
+        } finally {
+            destinosEnCurso.remove(destino);
+        }
+    }
+
+    // Secciones por bloques de id del origen, una transacción por bloque. El avance parcial se publica
+    // sin marcar la etapa como completada
+    private long clonarSecciones(RolloverProgreso progreso, Map<EtapaRollover, Long> insertadas, String origen, String destino) {
+        Optional<long[]> rango = rolloverJdbcRepository.findRangoSecciones(origen);
+        if (rango.isEmpty()) return 0;
+
+        long previas = insertadas.values().stream().mapToLong(Long::longValue).sum();
+        long filas = 0;
+        for (long desde = rango.get()[0]; desde <= rango.get()[1]; desde += loteSecciones) {
+            filas += rolloverJdbcRepository.clonarSecciones(origen, destino, desde, desde + loteSecciones - 1);
+            RolloverProgreso p = progresos.getIfPresent(progreso.id());
+            if (p != null) {
+                progresos.put(p.id(), new RolloverProgreso(p.id(), p.anioOrigen(), p.anioDestino(), p.estado(), p.etapa(),
+                        p.etapasCompletadas(), p.totalEtapas(), previas + filas, p.inicio(), null, null));
+            }
+        }
+        return filas;
+    }
+
+    private List<String> validarResponsables(String tabla, String entidad, Rol rolRequerido, String origen, String destino,
+                                             Map<Long, Long> reasignaciones) {
+        List<String> conflictos = new ArrayList<>();
+        List<Responsable> pendientes = rolloverJdbcRepository.findResponsablesPendientes(tabla, origen, destino);
+        if (pendientes.isEmpty()) return conflictos;
+
+        Set<Long> ocupados = rolloverJdbcRepository.findResponsablesEnAnio(tabla, destino);
+        Map<Long, Rol> roles = rolloverJdbcRepository.findRoles(pendientes.stream()
+                .map(p -> reasignaciones.getOrDefault(p.usuarioId(), p.usuarioId()))
+                .distinct()
+                .toList());
+
+        for (Responsable pendiente : pendientes) {
+            Long usuarioId = reasignaciones.getOrDefault(pendiente.usuarioId(), pendiente.usuarioId());
+            if (!roles.containsKey(usuarioId)) {
+                conflictos.add("La " + entidad + " " + pendiente.numeracion() + " quedaría asignada al usuario "
+                        + usuarioId + ", que no existe");
+            } else if (roles.get(usuarioId) != rolRequerido) {
+                conflictos.add("La " + entidad + " " + pendiente.numeracion() + " quedaría asignada al usuario "
+                        + usuarioId + ", que no tiene rol " + rolRequerido);
+            } else if (!ocupados.add(usuarioId)) {
+                conflictos.add("El usuario " + usuarioId + " tendría más de una " + entidad + " en el año " + destino);
+            }
+        }
+        return conflictos;
+    }
+
+    private void validarAnios(String origen, String destino) {
+        if (origen.equals(destino)) {
+            throw new IllegalArgumentException("El año de destino debe ser distinto al de origen.");
+        }
+        // Mismo rango que al crear una Zore o Are a mano
+        int anio = Integer.parseInt(destino);
+        if (anio < 2000 || anio > Year.now().getValue() + 1) {
+            throw new IllegalArgumentException("El año debe estar dentro de un rango válido (actual o siguiente).");
+        }
+    }
+
+    private static Map<Long, Long> reasignaciones(RolloverRequest request) {
+        Map<Long, Long> reasignaciones = new LinkedHashMap<>();
+        if (request.reasignaciones() == null) return reasignaciones;
+
+        for (RolloverRequest.Reasignacion r : request.reasignaciones()) {
+            if (reasignaciones.put(r.usuarioOrigenId(), r.usuarioDestinoId()) != null) {
+                throw new IllegalArgumentException("El usuario " + r.usuarioOrigenId() + " está reasignado más de una vez.");
+            }
+        }
+        return reasignaciones;
+    }
+
+    // Los selectores de año deben mostrar el nuevo ciclo aunque el rollover haya quedado a medias
+    private void registrarAnios(String destino) {
+        for (CatalogoAnio catalogo : CatalogoAnio.values()) {
+            anioCatalogoService.registrarAnio(catalogo, destino, null);
+        }
+    }
+
+    private void actualizar(RolloverProgreso p, String estado, EtapaRollover etapa, Map<EtapaRollover, Long> insertadas,
+                            LocalDateTime fin, String error) {
+        long total = insertadas.values().stream().mapToLong(Long::longValue).sum();
+        progresos.put(p.id(), new RolloverProgreso(p.id(), p.anioOrigen(), p.anioDestino(), estado,
+                etapa != null ? etapa.name() : null, insertadas.size(), p.totalEtapas(), total, p.inicio(), fin, error));
+    }
+}
@@ -1,5 +1,6 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.IdAnioDTO;
 import com.Tapia.ProyectoResidencia.DTO.SeccionCreate;
 import com.Tapia.ProyectoResidencia.DTO.SeccionResponse;
 import com.Tapia.ProyectoResidencia.Enum.*;
@@ -31,19 +32,30 @@ public class SeccionService {
     private final LocalidadRepository localidadRepository;
     private final UsuarioService usuarioService;
     private final SystemLogService systemLogService;
+    private final AnioCatalogoService anioCatalogoService;
 
-    // 📄 Listar secciones paginadas
+    // 📄 Listar secciones paginadas (página + conteo + localidades: tres consultas sin importar el tamaño)
+    @Transactional(readOnly = true)
     public Page<SeccionResponse> listarPaginadas(Pageable pageable) {
-        return seccionRepository.findAll(pageable)
-                .map(SeccionResponse::new);
+        Page<Seccion> pagina = seccionRepository.findPaginaConAsignacion(pageable);
+        if (pagina.hasContent()) {
+            seccionRepository.findConLocalidadesByIdIn(pagina.map(Seccion::getId).getContent());
+        }
+        return pagina.map(SeccionResponse::new);
     }
 
+    @Transactional(readOnly = true)
     public List<SeccionResponse> listarTodas() {
-        return seccionRepository.findAll().stream()
+        return seccionRepository.findAllConDetalle().stream()
                 .map(SeccionResponse::new)
                 .collect(Collectors.toList());
     }
 
+    // Devuelve lista de años únicos
+    public List<IdAnioDTO> obtenerAniosUnicos() {
+        return anioCatalogoService.obtenerAnios(CatalogoAnio.SECCION);
+    }
+
     // 🟢 Crear sección
     @Transactional
     public Seccion crear(Authentication auth, SeccionCreate dto, Sitio sitio, String ip) {
@@ -68,7 +80,9 @@ public class SeccionService {
         seccion.setAsignacionZoreAre(asignacion);
         seccion.setLocalidades(localidades);
 
-        return guardarSeccion(seccion, Evento.SECCION_REGISTER_EXITOSO, usuario, sitio, ip);
+        Seccion saved = guardarSeccion(seccion, Evento.SECCION_REGISTER_EXITOSO, usuario, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.SECCION, saved.getAnio(), null);
+        return saved;
     }
 
     // 🟡 Actualizar sección
@@ -91,13 +105,16 @@ public class SeccionService {
 
         Set<Localidad> localidades = obtenerLocalidades(dto.localidadesIds());
         validarMunicipios(localidades, usuario, sitio, ip);
+        String anioAnterior = existente.getAnio();
 
         existente.setNumeroSeccion(dto.numeroSeccion());
         existente.setAnio(dto.anio());
         existente.setAsignacionZoreAre(asignacion);
         existente.setLocalidades(localidades);
 
-        return guardarSeccion(existente, Evento.SECCION_UPDATE_EXITOSO, usuario, sitio, ip);
+        Seccion saved = guardarSeccion(existente, Evento.SECCION_UPDATE_EXITOSO, usuario, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.SECCION, saved.getAnio(), anioAnterior);
+        return saved;
     }
 
     // ✅ Guardar / actualizar con manejo de errores unificado
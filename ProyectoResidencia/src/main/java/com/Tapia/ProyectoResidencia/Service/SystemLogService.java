@@ -1,32 +1,57 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CursorPage;
+import com.Tapia.ProyectoResidencia.DTO.LogCursor;
+import com.Tapia.ProyectoResidencia.DTO.LogFiltro;
 import com.Tapia.ProyectoResidencia.Enum.Evento;
 import com.Tapia.ProyectoResidencia.Enum.Resultado;
 import com.Tapia.ProyectoResidencia.Enum.Rol;
 import com.Tapia.ProyectoResidencia.Enum.Sitio;
 import com.Tapia.ProyectoResidencia.Model.SystemLog;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.LogSpecifications;
 import com.Tapia.ProyectoResidencia.Repository.SystemLogRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SystemLogService {
     public final SystemLogRepository systemLogRepository;
-    private final SystemLogTransactionalService logTransactionalService;
+    private final AuditLogWriter auditLogWriter;
 
-    // Nuevo método de consulta paginada
-    public Page<SystemLog> listarLogsSistema(Pageable pageable) {
-        int pageSize = Math.min(pageable.getPageSize(), 100); // Límite de seguridad
-        Pageable safePageable = PageRequest.of(pageable.getPageNumber(), pageSize);
-        return systemLogRepository.findAllByOrderByFechaActividadDesc(safePageable);
+    // Listado por cursor (keyset) sobre (fecha, id): costo constante en cualquier página y sin COUNT
+    public CursorPage<SystemLog> listarLogsSistema(String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        List<SystemLog> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = systemLogRepository.findPrimeraPagina(limite);
+        } else {
+            LogCursor posicion = LogCursor.decodificar(cursor);
+            filas = systemLogRepository.findPaginaDespuesDe(posicion.fecha(), posicion.id(), limite);
+        }
+        return CursorPage.of(filas, tamano, log -> new LogCursor(log.getFechaActividad(), log.getId()));
+    }
+
+    // Búsqueda combinando cualquier criterio del filtro, paginada por el mismo cursor (fechaActividad, id)
+    public CursorPage<SystemLog> buscarLogsSistema(LogFiltro filtro, String cursor, int size) {
+        int tamano = Math.max(1, Math.min(size, 100)); // Límite de seguridad
+        LogCursor posicion = (cursor == null || cursor.isBlank()) ? null : LogCursor.decodificar(cursor);
+
+        List<SystemLog> filas = systemLogRepository.findBy(LogSpecifications.filtrar(filtro, posicion), q -> q
+                .sortBy(Sort.by(Sort.Direction.DESC, "fechaActividad", "id"))
+                .limit(tamano + 1)
+                .all());
+        return CursorPage.of(filas, tamano, log -> new LogCursor(log.getFechaActividad(), log.getId()));
     }
 
     public void registrarLogUsuario(Usuario usuario, Evento evento, Resultado resultado, Sitio sitio, String ip, String id){
@@ -47,8 +72,10 @@ public class SystemLogService {
                  ASIGNACION_ZORE_ARE_REGISTRO_FALLIDO, ASIGNACION_ZORE_ARE_UPDATE_FALLIDO,
                  ASIGNACION_ZORE_ARE_UPDATE_ERROR, LOCALIDAD_REGISTER_FALLIDO, LOCALIDAD_REGISTER_ERROR,
                  LOCALIDAD_UPDATE_FALLIDO, LOCALIDAD_UPDATE_ERROR, LOCALIDAD_DELETE_ERROR, SECCION_REGISTER_FALLIDO,
-                 SECCION_REGISTER_ERROR, SECCION_UPDATE_FALLIDO, SECCION_UPDATE_ERROR ->
-                logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, id, ip);
+                 SECCION_REGISTER_ERROR, SECCION_UPDATE_FALLIDO, SECCION_UPDATE_ERROR, NOTIFICACION_DIFUSION_ERROR,
+                 IMPORTACION_CATALOGO_ERROR, ROLLOVER_ESTRUCTURA_FALLIDO, ROLLOVER_ESTRUCTURA_ERROR,
+                 EXPORTACION_ERROR ->
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, id, ip);
             case PASSWORD_CHANGE_FALLIDO -> {
                 switch (id) {
                     case "0" -> {
@@ -184,19 +211,19 @@ public class SystemLogService {
                 switch (id) {
                     case "1" -> {
                         descripcion = "Solo usuarios con status PENDIENTE pueden eliminarse con esta función";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "2" -> {
                         descripcion = "Para eliminar este registro se debe de hacer desde el módulo de usuarios pendientes";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "3" -> {
                         descripcion = "Se debe cambiar el status del usuario a INACTIVO antes de eliminar";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "4" -> {
                         descripcion = "Ocurrió un fallo durante el proceso de eliminar el registro (Posiblemente status nulo o invalido)";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                 }
             }
@@ -210,7 +237,7 @@ public class SystemLogService {
             }
             case UPDATE_EMAIL_USUARIO_FALLIDO -> {
                 descripcion = "Correo ya registrado, esta en uso por otro usuario";
-                logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
             }
             case UPDATE_PASSWORD_ADMIN_EXITOSO -> {
                 descripcion = "Contraseña actualizada por administrador para el usuario: ";
@@ -218,7 +245,7 @@ public class SystemLogService {
             }
             case UPDATE_PASSWORD_ADMIN_FALLIDO -> {
                 descripcion = "La contraseña no cumple los criterios de seguridad";
-                logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
             }
             case UPDATE_STATUS_ADMIN_EXITOSO -> {
                 descripcion = "El administrador cambió el status del usuario: ";
@@ -232,15 +259,15 @@ public class SystemLogService {
                 switch (id) {
                     case "1" -> {
                         descripcion = "Ya existe un contrato con el código proporcionado";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "2" -> {
                         descripcion = "La fecha de conclusión no puede ser anterior a la fecha de inicio";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "3" -> {
                         descripcion = "El sueldo debe ser mayor que 0";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                 }
             }
@@ -259,10 +286,10 @@ public class SystemLogService {
             case ASIGNAR_CONTRATO_FALLIDO -> {
                 if (id.equals("1")) {
                     descripcion = "El número de contrato ya está asignado a otro usuario";
-                    logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                    registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                 } else if (id.equals("2")) {
                     descripcion = "El usuario ya tiene asignado este contrato";
-                    logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                    registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                 }
             }
             case UPDATE_VINCULO_CONTRATO_EXITOSO -> {
@@ -273,15 +300,15 @@ public class SystemLogService {
                 switch (id) {
                     case "1" -> {
                         descripcion = "No se ha encontrado la vinculación del contrato con el usuario";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "2" -> {
                         descripcion = "El número de contrato ya pertenece a otra vinculación";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                     case "3" -> {
                         descripcion = "El usuario ya tiene asignado este contrato";
-                        logTransactionalService.registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
+                        registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion, ip);
                     }
                 }
             }
@@ -341,6 +368,22 @@ public class SystemLogService {
                 descripcion = "Sección actualizada correctamente ";
                 registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion + id, ip);
             }
+            case NOTIFICACION_DIFUSION_EXITOSO -> {
+                descripcion = "Notificación difundida ";
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion + id, ip);
+            }
+            case IMPORTACION_CATALOGO_EXITOSO -> {
+                descripcion = "Importación de catálogo ";
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion + id, ip);
+            }
+            case ROLLOVER_ESTRUCTURA_EXITOSO -> {
+                descripcion = "Estructura clonada ";
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion + id, ip);
+            }
+            case EXPORTACION_EXITOSO -> {
+                descripcion = "Exportación CSV ";
+                registrarLog(usuario.getId(), usuario.getCorreo(), usuario.getRol(), sitio, evento, resultado, descripcion + id, ip);
+            }
         }
     }
 
@@ -355,6 +398,8 @@ public class SystemLogService {
         systemLog.setResultado(resultado);
         systemLog.setDescripcion(descripcion);
         systemLog.setIp(ip);
-        systemLogRepository.save(systemLog);
+        // Fallos y errores se escriben fuera de la transacción de negocio (sobreviven a su rollback);
+        // los éxitos esperan a que esa transacción confirme
+        auditLogWriter.registrar(systemLog);
     }
 }
@@ -4,7 +4,6 @@ import com.Tapia.ProyectoResidencia.DTO.*;
 import com.Tapia.ProyectoResidencia.Enum.*;
 import com.Tapia.ProyectoResidencia.Exception.*;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
-import com.Tapia.ProyectoResidencia.Model.UsuarioEliminado;
 import com.Tapia.ProyectoResidencia.Utils.PasswordUtils;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -33,7 +32,7 @@ public class UserService {
     private final IpBlockService ipBlockService;
     private final NotificacionService notificacionService;
     private final UsuarioService usuarioService;
-    private final UsuarioEliminadoService usuarioEliminadoService;
+    private final UsuarioBajaService usuarioBajaService;
 
     public UserResponse getUserByCorreo(String correo) {
         Usuario user = usuarioService.getUsuarioEntityByCorreo(correo);
@@ -325,7 +324,7 @@ public class UserService {
             notificacionService.eliminarRelacionesSistemaPorUsuario(usuario);
 
             // 🧹 2️⃣ Romper vínculos de envío (por seguridad)
-            usuario.getNotificacionesEnviadas().forEach(n -> n.setEmisor(null));
+            notificacionService.desvincularNotificacionesEnviadas(usuario);
 
             // 🧹 3️⃣ Eliminar usuario de la tabla principal
             usuarioService.eliminarUsuario(usuario);
@@ -363,19 +362,12 @@ public class UserService {
             }
             case INACTIVO -> {
                 try {
-                    // 1️⃣ Crear registro en UsuarioEliminado
-                    UsuarioEliminado usuarioEliminado = usuarioEliminadoService.guardarRegistro(usuario);
+                    // Respaldo en UsuarioEliminado, re-apuntado de notificaciones, emisiones y contratos
+                    // y borrado del usuario con sentencias por conjunto
+                    if (!usuarioBajaService.eliminarInactivo(usuario)) {
+                        throw new InvalidOperationException("No se pudo eliminar el usuario debido a relaciones activas en el sistema.");
+                    }
                     systemLogService.registrarLogUsuario(usuarioAuth, Evento.RESPALDO_USER_EXITOSO, Resultado.EXITO, sitio, ip, null);
-
-                    // 2️⃣ Procesar relaciones de notificaciones
-                    notificacionService.eliminarRelacionesSistemaPorUsuario(usuario);
-                    notificacionService.redirigirRelacionesAdministrativas(usuario, usuarioEliminado);
-
-                    // 3️⃣ Limpiar referencias de emisor en las notificaciones enviadas
-                    usuario.getNotificacionesEnviadas().forEach(n -> n.setEmisor(null));
-
-                    // 3️⃣ Eliminar usuario de la entidad principal
-                    usuarioService.eliminarUsuario(usuario);
                     systemLogService.registrarLogUsuario(usuarioAuth, Evento.DELETE_USUARIO_EXITOSO, Resultado.EXITO, sitio, ip, "2");
                 } catch (DataIntegrityViolationException e) {
                     systemLogService.registrarLogUsuario(usuarioAuth, Evento.DELETE_USUARIO_ERROR, Resultado.FALLO, sitio, ip,
@@ -0,0 +1,109 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.BajaMasivaResultado;
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Enum.Resultado;
+import com.Tapia.ProyectoResidencia.Enum.Sitio;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.UsuarioBajaJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Baja definitiva de usuarios INACTIVOS, individual o masiva. La masiva procesa bloques de IDs,
+// cada uno en su propia transacción corta, para no retener bloqueos sobre todo el conjunto
+@Service
+@RequiredArgsConstructor
+public class UsuarioBajaService {
+
+    private final UsuarioBajaJdbcRepository usuarioBajaJdbcRepository;
+    private final UsuarioCacheService usuarioCacheService;
+    private final JwtRevocationService jwtRevocationService;
+    private final NotificacionContadorService notificacionContadorService;
+    private final SystemLogService systemLogService;
+
+    @Value("${app.baja.lote:200}")
+    private int lote;
+
+    // Devuelve false si el usuario no pudo darse de baja (no está INACTIVO o es responsable de una Zore/Are)
+    public boolean eliminarInactivo(Usuario usuario) {
+        List<String> correos = usuarioBajaJdbcRepository.archivarYEliminar(List.of(usuario.getId()));
+        limpiar(List.of(usuario.getId()), correos);
+        return !correos.isEmpty();
+    }
+
+    // La baja de todos los INACTIVOS exige todos=true explícito: un cuerpo vacío o perdido no debe barrer la tabla
+    public BajaMasivaResultado eliminarInactivos(Usuario admin, List<Long> ids, boolean todos, Sitio sitio, String ip) {
+        boolean hayIds = ids != null && !ids.isEmpty();
+        if (todos == hayIds) {
+            throw new IllegalArgumentException(todos
+                    ? "No se pueden indicar IDs junto con todos=true."
+                    : "Debe indicar los IDs de los usuarios a eliminar o todos=true.");
+        }
+
+        long procesados = 0;
+        long eliminados = 0;
+
+        try {
+            if (todos) {
+                // Todos los INACTIVOS, recorridos por id para no saltarse filas entre bloques
+                long desde = 0;
+                List<Long> bloque;
+                while (!(bloque = usuarioBajaJdbcRepository.findIdsInactivosDespuesDe(desde, lote)).isEmpty()) {
+                    procesados += bloque.size();
+                    eliminados += eliminarBloque(bloque);
+                    desde = bloque.get(bloque.size() - 1);
+                }
+            } else {
+                List<Long> distintos = ids.stream().distinct().toList();
+                for (int i = 0; i < distintos.size(); i += lote) {
+                    List<Long> bloque = distintos.subList(i, Math.min(i + lote, distintos.size()));
+                    procesados += bloque.size();
+                    eliminados += eliminarBloque(bloque);
+                }
+            }
+        } catch (Exception e) {
+            systemLogService.registrarLogUsuario(admin, Evento.DELETE_USUARIO_ERROR, Resultado.FALLO, sitio, ip,
+                    "Baja masiva interrumpida tras " + eliminados + " usuarios: " + e.getMessage());
+            throw e;
+        }
+
+        BajaMasivaResultado resultado = new BajaMasivaResultado(procesados, eliminados, procesados - eliminados);
+        systemLogService.registrarLogUsuario(admin, Evento.DELETE_USUARIO_EXITOSO, Resultado.EXITO, sitio, ip,
+                "Baja masiva: " + eliminados + " eliminados, " + resultado.omitidos() + " omitidos");
+        return resultado;
+    }
+
+    private int eliminarBloque(List<Long> bloque) {
+        List<String> correos = usuarioBajaJdbcRepository.archivarYEliminar(bloque);
+        limpiar(bloque, correos);
+        return correos.size();
+    }
+
+    // Dentro de una transacción del llamador (UserService.eliminarUsuario) la baja aún puede revertirse:
+    // se limpia al confirmar, no antes
+    private void limpiar(List<Long> ids, List<String> correos) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(ids, correos);
+                }
+            });
+        } else {
+            invalidar(ids, correos);
+        }
+    }
+
+    private void invalidar(List<Long> ids, List<String> correos) {
+        correos.forEach(correo -> {
+            usuarioCacheService.invalidar(correo);
+            jwtRevocationService.invalidarTokens(correo);
+        });
+        ids.forEach(notificacionContadorService::invalidar);
+    }
+}
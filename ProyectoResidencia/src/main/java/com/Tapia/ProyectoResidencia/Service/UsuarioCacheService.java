@@ -0,0 +1,136 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.CacheStatsResponse;
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Status;
+import com.Tapia.ProyectoResidencia.Model.Usuario;
+import com.Tapia.ProyectoResidencia.Repository.VocaliaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+public class UsuarioCacheService {
+
+    // Correo → UserDetails (DetailService) y correo → datos del Usuario (UsuarioService.getUsuarioEntityByCorreo).
+    // Solo se guardan columnas propias y el id de la vocalía: nada que dependa de una sesión ya cerrada
+    private final Cache<String, UserDetails> detalles;
+    private final Cache<String, UsuarioCacheado> usuarios;
+    private final VocaliaRepository vocaliaRepository;
+
+    public UsuarioCacheService(VocaliaRepository vocaliaRepository,
+                               @Value("${app.cache.usuarios.max-size:10000}") long maxSize,
+                               @Value("${app.cache.usuarios.ttl-seconds:300}") long ttlSeconds) {
+        this.vocaliaRepository = vocaliaRepository;
+        this.detalles = construir(maxSize, ttlSeconds);
+        this.usuarios = construir(maxSize, ttlSeconds);
+    }
+
+    private static <V> Cache<String, V> construir(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails obtenerDetalles(String correo, Function<String, UserDetails> cargador) {
+        UserDetails cacheado = detalles.get(correo, cargador);
+        // Copia: ProviderManager borra la contraseña del principal después de autenticar
+        return User.withUserDetails(cacheado).build();
+    }
+
+    // Cada llamada arma un Usuario nuevo (los servicios lo modifican antes de guardarlo). Es una entidad
+    // desconectada: la vocalía es una referencia del contexto de persistencia actual y las colecciones
+    // inversas quedan vacías; quien necesite relaciones usa UsuarioService.getUsuarioById
+    public Usuario obtenerUsuario(String correo, Function<String, Usuario> cargador) {
+        UsuarioCacheado cacheado = usuarios.get(correo, c -> UsuarioCacheado.de(cargador.apply(c)));
+        Usuario usuario = cacheado.aUsuario();
+        if (cacheado.vocaliaId() != null) {
+            usuario.setVocalia(vocaliaRepository.getReferenceById(cacheado.vocaliaId()));
+        }
+        return usuario;
+    }
+
+    // Se llama cada vez que se guarda o elimina la fila del usuario
+    public void invalidar(String correo) {
+        if (correo == null) return;
+
+        eliminar(correo);
+
+        // Una lectura concurrente pudo volver a cargar la fila antes del commit: se expulsa otra vez al terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eliminar(correo);
+                }
+            });
+        }
+    }
+
+    private void eliminar(String correo) {
+        detalles.invalidate(correo);
+        usuarios.invalidate(correo);
+    }
+
+    public List<CacheStatsResponse> obtenerEstadisticas() {
+        return List.of(
+                estadisticas("usuarios-detalles", detalles),
+                estadisticas("usuarios-entidad", usuarios)
+        );
+    }
+
+    private static CacheStatsResponse estadisticas(String nombre, Cache<String, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                nombre,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+
+    private record UsuarioCacheado(Long id, String correo, String contrasena, String nombre,
+                                   String apellidoPaterno, String apellidoMaterno, Status status, Rol rol,
+                                   String genero, String telefono, Date fechaRegistro, Long vocaliaId) {
+
+        static UsuarioCacheado de(Usuario u) {
+            // getId() de un proxy no lo inicializa
+            Long vocaliaId = u.getVocalia() != null ? u.getVocalia().getId() : null;
+            return new UsuarioCacheado(u.getId(), u.getCorreo(), u.getContrasena(), u.getNombre(),
+                    u.getApellidoPaterno(), u.getApellidoMaterno(), u.getStatus(), u.getRol(), u.getGenero(),
+                    u.getTelefono(), u.getFechaRegistro() != null ? new Date(u.getFechaRegistro().getTime()) : null,
+                    vocaliaId);
+        }
+
+        Usuario aUsuario() {
+            Usuario u = new Usuario();
+            u.setId(id);
+            u.setCorreo(correo);
+            u.setContrasena(contrasena);
+            u.setNombre(nombre);
+            u.setApellidoPaterno(apellidoPaterno);
+            u.setApellidoMaterno(apellidoMaterno);
+            u.setStatus(status);
+            u.setRol(rol);
+            u.setGenero(genero);
+            u.setTelefono(telefono);
+            u.setFechaRegistro(fechaRegistro != null ? new Date(fechaRegistro.getTime()) : null);
+            return u;
+        }
+    }
+}
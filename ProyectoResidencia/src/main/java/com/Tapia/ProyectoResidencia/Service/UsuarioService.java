@@ -22,6 +22,8 @@ import java.util.stream.Collectors;
 public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtRevocationService jwtRevocationService;
+    private final UsuarioCacheService usuarioCacheService;
 
     public Usuario registrarUsuario(String correo,
                                  String contrasena,
@@ -96,8 +98,8 @@ public class UsuarioService {
     }
 
     public Usuario getUsuarioEntityByCorreo(String correo) {
-        return usuarioRepository.findByCorreo(correo)
-                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado"));
+        return usuarioCacheService.obtenerUsuario(correo, c -> usuarioRepository.findByCorreo(c)
+                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado")));
     }
 
     public Page<Usuario> getUsuariosByStatus(Status status, Pageable pageable) {
@@ -134,16 +136,22 @@ public class UsuarioService {
     public void actualizarRolUsuario(Usuario usuario, Rol rol) {
         usuario.setRol(rol);
         createUser(usuario);
+        jwtRevocationService.invalidarTokens(usuario.getCorreo());
     }
 
-    // Eliminar usuario
+    // Eliminar usuario (por id: la entidad gestionada arrastra sus colecciones, una copia de caché no)
     public void eliminarUsuario(Usuario usuario) {
-        usuarioRepository.delete(usuario);
+        usuarioRepository.deleteById(usuario.getId());
+        usuarioCacheService.invalidar(usuario.getCorreo());
+        jwtRevocationService.invalidarTokens(usuario.getCorreo());
     }
 
     public void actualizarCorreoUsuario(Usuario usuario, UpdateUserEmailRequest request) {
+        String correoAnterior = usuario.getCorreo();
         usuario.setCorreo(request.nuevoCorreo());
         createUser(usuario);
+        usuarioCacheService.invalidar(correoAnterior);
+        jwtRevocationService.invalidarTokens(correoAnterior);
     }
 
     @Transactional(readOnly = true)
@@ -165,9 +173,33 @@ public class UsuarioService {
 
         usuario.setStatus(nuevoStatus);
         createUser(usuario);
+        jwtRevocationService.invalidarTokens(usuario.getCorreo());
     }
 
+    // Un usuario ya existente se guarda sobre su entidad gestionada: las copias de getUsuarioEntityByCorreo
+    // no traen colecciones y un merge vaciaría passwordResetTokens (orphanRemoval)
     private Usuario createUser(Usuario usuario){
-        return usuarioRepository.save(usuario);
+        Usuario destino = usuario.getId() == null ? usuario : usuarioRepository.findById(usuario.getId())
+                .map(gestionado -> copiarDatos(usuario, gestionado))
+                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con id: " + usuario.getId()));
+        Usuario guardado = usuarioRepository.save(destino);
+        usuarioCacheService.invalidar(guardado.getCorreo());
+        return guardado;
+    }
+
+    private static Usuario copiarDatos(Usuario origen, Usuario destino) {
+        if (origen == destino) return destino;
+        destino.setCorreo(origen.getCorreo());
+        destino.setContrasena(origen.getContrasena());
+        destino.setNombre(origen.getNombre());
+        destino.setApellidoPaterno(origen.getApellidoPaterno());
+        destino.setApellidoMaterno(origen.getApellidoMaterno());
+        destino.setStatus(origen.getStatus());
+        destino.setRol(origen.getRol());
+        destino.setGenero(origen.getGenero());
+        destino.setTelefono(origen.getTelefono());
+        destino.setFechaRegistro(origen.getFechaRegistro());
+        destino.setVocalia(origen.getVocalia());
+        return destino;
     }
 }
@@ -1,5 +1,6 @@
 package com.Tapia.ProyectoResidencia.Service;
 
+import com.Tapia.ProyectoResidencia.DTO.CatalogoSnapshot;
 import com.Tapia.ProyectoResidencia.DTO.VocaliaAssign;
 import com.Tapia.ProyectoResidencia.DTO.VocaliaCreate;
 import com.Tapia.ProyectoResidencia.Enum.*;
@@ -26,11 +27,14 @@ public class VocaliaService {
 
     private final VocaliaRepository vocaliaRepository;
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioCacheService usuarioCacheService;
     private final SystemLogService systemLogService;
     private final UsuarioService usuarioService;
+    private final CatalogoCacheService catalogoCacheService;
 
-    public List<Vocalia> listarTodas() {
-        return vocaliaRepository.findAll();
+    // Instantánea en caché del catálogo de vocalías
+    public CatalogoSnapshot listarTodas() {
+        return catalogoCacheService.obtener(CatalogoCacheService.VOCALIAS, vocaliaRepository::findAll);
     }
 
     @Transactional
@@ -77,6 +81,7 @@ public class VocaliaService {
 
         try {
             vocaliaRepository.delete(vocalia);
+            catalogoCacheService.invalidar(CatalogoCacheService.VOCALIAS);
             systemLogService.registrarLogUsuario(user, eventoExito, Resultado.EXITO, sitio, ip, null);
         } catch (DataIntegrityViolationException e) {
             String msg = "No se puede eliminar la vocalía porque está referenciada en otros registros.";
@@ -120,6 +125,7 @@ public class VocaliaService {
             // Cambiar status de pendiente a activo
             usuario.setStatus(Status.ACTIVO);  // ajusta según tu enum o string de status
             usuarioRepository.save(usuario);
+            usuarioCacheService.invalidar(usuario.getCorreo());
 
             // Registrar evento exitoso
             systemLogService.registrarLogUsuario(admin, Evento.ASIGNACION_VOCALIA_EXITOSO, Resultado.EXITO, sitio, ip, null);
@@ -142,6 +148,7 @@ public class VocaliaService {
 
         try {
             Vocalia v = vocaliaRepository.save(vocalia);
+            catalogoCacheService.invalidar(CatalogoCacheService.VOCALIAS);
             systemLogService.registrarLogUsuario(user, evento, Resultado.EXITO, sitio, ip, null);
             return v;
         } catch (DataIntegrityViolationException e) {
@@ -29,6 +29,7 @@ public class ZoreService {
     private final ZoreRepository zoreRepository;
     private final SystemLogService systemLogService;
     private final UsuarioService usuarioService;
+    private final AnioCatalogoService anioCatalogoService;
 
     public Page<ZoreResponse> listarPaginadas(Pageable pageable) {
         Page<Zore> zores = zoreRepository.findAll(pageable);
@@ -47,7 +48,9 @@ public class ZoreService {
         zore.setAnio(dto.anio());
         zore.setUsuario(usuarioAsignado);
 
-        return guardarZore(zore, Evento.ZORE_REGISTER_EXITOSO, admin, sitio, ip);
+        Zore saved = guardarZore(zore, Evento.ZORE_REGISTER_EXITOSO, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ZORE, saved.getAnio(), null);
+        return saved;
     }
 
     @Transactional
@@ -59,24 +62,20 @@ public class ZoreService {
                 .orElseThrow(() -> new NoSuchElementException("Zore no encontrada con ID: " + id));
 
         Usuario usuarioAsignado = validarZore(dto, id, admin, Evento.ZORE_UPDATE_FALLIDO, sitio, ip);
+        String anioAnterior = zore.getAnio();
 
         zore.setNumeracion(dto.numeracion());
         zore.setAnio(dto.anio());
         zore.setUsuario(usuarioAsignado);
 
-        return guardarZore(zore, Evento.ZORE_UPDATE_EXITOSO, admin, sitio, ip);
+        Zore saved = guardarZore(zore, Evento.ZORE_UPDATE_EXITOSO, admin, sitio, ip);
+        anioCatalogoService.registrarAnio(CatalogoAnio.ZORE, saved.getAnio(), anioAnterior);
+        return saved;
     }
 
     // Devuelve lista de años únicos
     public List<IdAnioDTO> obtenerAniosUnicos() {
-        List<Zore> todas = zoreRepository.findAll();
-        Map<String, Zore> map = new LinkedHashMap<>();
-        for (Zore z : todas) {
-            map.putIfAbsent(z.getAnio(), z); // solo el primero de cada año
-        }
-        return map.values().stream()
-                .map(z -> new IdAnioDTO(z.getId(), z.getAnio()))
-                .toList();
+        return anioCatalogoService.obtenerAnios(CatalogoAnio.ZORE);
     }
 
     // Devuelve todas las zores de un año
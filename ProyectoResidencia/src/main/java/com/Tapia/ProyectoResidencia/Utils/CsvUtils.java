@@ -0,0 +1,74 @@
+package com.Tapia.ProyectoResidencia.Utils;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvUtils {
+
+    // Separa una línea CSV (coma como separador, comillas dobles para campos con comas o comillas escapadas "")
+    public static String[] parsearLinea(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos.toArray(String[]::new);
+    }
+
+    // Escapa un valor para escribirlo como campo CSV. Un texto que Excel interpretaría como fórmula
+    // (=, +, -, @, tabulador o retorno de carro al inicio) se antepone con ' para que se muestre literal
+    public static String escapar(Object valor) {
+        if (valor == null) return "";
+        String texto = valor.toString();
+        if (!(valor instanceof Number) && esFormula(texto)) {
+            texto = "'" + texto;
+        }
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return "\"" + texto.replace("\"", "\"\"") + "\"";
+    }
+
+    // Descarga CSV en streaming: el cuerpo se escribe mientras se recorre el cursor
+    public static ResponseEntity<StreamingResponseBody> descarga(String nombre, StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nombre + "-" + LocalDate.now() + ".csv").build().toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(cuerpo);
+    }
+
+    private static boolean esFormula(String texto) {
+        if (texto.isEmpty()) return false;
+        char c = texto.charAt(0);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
@@ -1,7 +1,9 @@
 package com.Tapia.ProyectoResidencia.Utils;
 
+import com.Tapia.ProyectoResidencia.DTO.JwtClaims;
 import com.Tapia.ProyectoResidencia.Model.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,9 +18,10 @@ import java.util.Date;
 public class JwtUtils {
 
     private final Key signingKey;
+    private final JwtParser jwtParser;         // inmutable y thread-safe, se construye una sola vez
     private final long expirationTime;         // en milisegundos
     private final long expirationTimeRefresh;  // en milisegundos
-    private static final long ALLOWED_CLOCK_SKEW_SECONDS = 60; // 1 min de tolerancia
+    public static final long ALLOWED_CLOCK_SKEW_SECONDS = 60; // 1 min de tolerancia
 
     public JwtUtils(
             @Value("${jwt.secret}") String secret,
@@ -28,6 +31,10 @@ public class JwtUtils {
         byte[] keyBytes = secret.getBytes();
         System.out.println("🔑 Longitud del secret: " + keyBytes.length);
         this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
+                .build();
         this.expirationTime = expirationTime;
         this.expirationTimeRefresh = expirationTimeRefresh;
     }
@@ -59,39 +66,21 @@ public class JwtUtils {
                 .compact();
     }
 
-    // Extrae claims y permite margen de tolerancia horaria
+    // Verifica firma y expiración (con margen de tolerancia horaria) en un solo parseo.
+    // Lanza ExpiredJwtException si expiró o JwtException si es inválido.
+    public JwtClaims validateToken(String token) {
+        return JwtClaims.fromClaims(extractClaims(token));
+    }
+
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return validateToken(token).correo();
     }
 
     public String extractRole(String token) {
-        return extractClaims(token).get("rol", String.class);
-    }
-
-    public boolean isTokenValid(String token, String username) {
-        return username.equals(extractUsername(token)) && isTokenNotExpired(token);
-    }
-
-    public boolean isRefreshTokenValid(String token, String username) {
-        try {
-            return username.equals(extractUsername(token)) && isTokenNotExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean isTokenNotExpired(String token) {
-        Date expiration = extractClaims(token).getExpiration();
-        Instant now = Instant.now();
-        return expiration.toInstant().isAfter(now.minusSeconds(ALLOWED_CLOCK_SKEW_SECONDS));
+        return validateToken(token).rol();
     }
 }
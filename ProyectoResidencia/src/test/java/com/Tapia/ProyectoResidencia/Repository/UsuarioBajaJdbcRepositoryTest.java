@@ -0,0 +1,176 @@
+package com.Tapia.ProyectoResidencia.Repository;
+
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Status;
+import com.Tapia.ProyectoResidencia.Enum.StatusContrato;
+import com.Tapia.ProyectoResidencia.Enum.TipoNotificacion;
+import com.Tapia.ProyectoResidencia.Model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Baja por conjuntos: respaldo, borrado de relaciones SISTEMA, re-apunte de destinatarios, emisor y contratos,
+// y omisión de responsables de Zore/Are
+@DataJpaTest
+@Import(UsuarioBajaJdbcRepository.class)
+class UsuarioBajaJdbcRepositoryTest {
+
+	@Autowired
+	private UsuarioBajaJdbcRepository usuarioBajaJdbcRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Usuario activo;
+	private Usuario baja;
+	private Usuario responsable;
+	private Notification sistema;
+	private Notification emitida;
+	private UsuarioContrato contrato;
+
+	@BeforeEach
+	void crearDatos() {
+		activo = usuario("activo@correo.com", Status.ACTIVO);
+		baja = usuario("baja@correo.com", Status.INACTIVO);
+		responsable = usuario("responsable@correo.com", Status.INACTIVO);
+
+		Zore zore = new Zore();
+		zore.setNumeracion(1);
+		zore.setAnio("2025");
+		zore.setUsuario(responsable);
+		entityManager.persist(zore);
+
+		sistema = notificacion(TipoNotificacion.SISTEMA, null);
+		destinatario(sistema, baja);
+		destinatario(sistema, responsable);
+
+		emitida = notificacion(TipoNotificacion.ADMIN, baja);
+		destinatario(emitida, baja);
+		destinatario(emitida, activo);
+
+		Contrato puesto = new Contrato();
+		puesto.setPuesto("Capturista");
+		puesto.setCodigo("CAP-01");
+		puesto.setNivelTabular("N1");
+		puesto.setFechaInicio(LocalDate.of(2025, 1, 1));
+		puesto.setFechaConclusion(LocalDate.of(2025, 12, 31));
+		puesto.setActividadesGenericas("Captura");
+		puesto.setSueldo(new BigDecimal("1000.00"));
+		entityManager.persist(puesto);
+
+		contrato = new UsuarioContrato();
+		contrato.setUsuario(baja);
+		contrato.setContrato(puesto);
+		contrato.setNumeroContrato("CONTRATO-0000000000000000000001");
+		contrato.setEstado(StatusContrato.ACTIVO);
+		entityManager.persist(contrato);
+
+		PasswordResetToken token = new PasswordResetToken();
+		token.setToken("token-baja");
+		token.setExpiryDate(new Date());
+		token.setUsuario(baja);
+		entityManager.persist(token);
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void archivaReapuntaReferenciasYOmiteResponsables() {
+		List<String> correos = usuarioBajaJdbcRepository.archivarYEliminar(
+				List.of(activo.getId(), baja.getId(), responsable.getId()));
+
+		// Solo el INACTIVO sin Zore/Are
+		assertThat(correos).containsExactly("baja@correo.com");
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM usuarios", Long.class))
+				.containsExactlyInAnyOrder(activo.getId(), responsable.getId());
+
+		Long respaldo = jdbcTemplate.queryForObject(
+				"SELECT id FROM usuarios_eliminados WHERE id_original = ? AND correo = ?",
+				Long.class, baja.getId(), "baja@correo.com");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios_eliminados", Integer.class)).isEqualTo(1);
+
+		// SISTEMA: se borra la relación del eliminado; la del omitido sigue intacta
+		assertThat(jdbcTemplate.queryForList(
+				"SELECT usuario_id FROM notificacion_usuario WHERE notificacion_id = ?", Long.class, sistema.getId()))
+				.containsExactly(responsable.getId());
+
+		// ADMIN: la relación del eliminado apunta al respaldo; la del activo no cambia
+		assertThat(jdbcTemplate.queryForList(
+				"SELECT usuario_id, usuario_eliminado_id FROM notificacion_usuario WHERE notificacion_id = ? ORDER BY id",
+				emitida.getId()))
+				.extracting(f -> f.get("USUARIO_ID"), f -> f.get("USUARIO_ELIMINADO_ID"))
+				.containsExactly(
+						tuple(null, respaldo),
+						tuple(activo.getId(), null));
+
+		assertThat(jdbcTemplate.queryForMap(
+				"SELECT emisor_id, emisor_eliminado_id FROM notificaciones WHERE id = ?", emitida.getId()))
+				.containsEntry("EMISOR_ID", null)
+				.containsEntry("EMISOR_ELIMINADO_ID", respaldo);
+
+		assertThat(jdbcTemplate.queryForMap(
+				"SELECT usuario_id, usuario_eliminado_id FROM usuario_contratos WHERE id = ?", contrato.getId()))
+				.containsEntry("USUARIO_ID", null)
+				.containsEntry("USUARIO_ELIMINADO_ID", respaldo);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM password_reset_tokens", Integer.class)).isZero();
+	}
+
+	@Test
+	void sinCandidatosNoModificaNada() {
+		assertThat(usuarioBajaJdbcRepository.archivarYEliminar(List.of(activo.getId(), responsable.getId()))).isEmpty();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios", Integer.class)).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios_eliminados", Integer.class)).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM notificacion_usuario WHERE usuario_eliminado_id IS NOT NULL", Integer.class)).isZero();
+	}
+
+	private Usuario usuario(String correo, Status status) {
+		Usuario usuario = new Usuario();
+		usuario.setCorreo(correo);
+		usuario.setContrasena("Contrasena1!");
+		usuario.setNombre("Juan");
+		usuario.setApellidoPaterno("Pérez");
+		usuario.setApellidoMaterno("López");
+		usuario.setStatus(status);
+		usuario.setRol(Rol.VOCAL);
+		usuario.setGenero("Masculino");
+		usuario.setTelefono("5512345678");
+		usuario.setFechaRegistro(new Date());
+		return entityManager.persist(usuario);
+	}
+
+	private Notification notificacion(TipoNotificacion tipo, Usuario emisor) {
+		Notification notificacion = new Notification();
+		notificacion.setTipo(tipo);
+		notificacion.setTitulo("Título");
+		notificacion.setMensaje("Mensaje");
+		notificacion.setEmisor(emisor);
+		return entityManager.persist(notificacion);
+	}
+
+	private void destinatario(Notification notificacion, Usuario usuario) {
+		NotificacionUsuario relacion = new NotificacionUsuario();
+		relacion.setNotificacion(notificacion);
+		relacion.setUsuario(usuario);
+		entityManager.persist(relacion);
+	}
+}
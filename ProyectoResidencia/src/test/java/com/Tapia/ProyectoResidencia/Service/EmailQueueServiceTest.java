@@ -0,0 +1,167 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.Enum.EstadoCorreo;
+import com.Tapia.ProyectoResidencia.Enum.Evento;
+import com.Tapia.ProyectoResidencia.Model.EmailLog;
+import com.Tapia.ProyectoResidencia.Repository.EmailLogRepository;
+import com.Tapia.ProyectoResidencia.Security.TaskConfig;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Cola de correos contra un SMTP local (GreenMail): envío, reintento con backoff y agotamiento de intentos.
+// Sin transacción de prueba: encolar confirma en su propia transacción y los workers corren en otros hilos
+@DataJpaTest(properties = {
+		"app.mail.max-intentos=2",
+		"app.mail.backoff-ms=60000",
+		"app.mail.barrido-ms=3600000"
+})
+@Import({EmailQueueService.class, TaskConfig.class, EmailQueueServiceTest.Smtp.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailQueueServiceTest {
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@TestConfiguration
+	static class Smtp {
+		@Bean
+		JavaMailSenderImpl javaMailSender() {
+			JavaMailSenderImpl sender = new JavaMailSenderImpl();
+			sender.setHost("localhost");
+			sender.setPort(ServerSetupTest.SMTP.getPort());
+			sender.setDefaultEncoding("UTF-8");
+			return sender;
+		}
+	}
+
+	@Autowired
+	private EmailQueueService emailQueueService;
+
+	@Autowired
+	private EmailLogRepository emailLogRepository;
+
+	@Autowired
+	private JavaMailSenderImpl mailSender;
+
+	@BeforeEach
+	void limpiar() {
+		emailLogRepository.deleteAll();
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+	}
+
+	@AfterEach
+	void restaurar() {
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+	}
+
+	@Test
+	void pendienteSeReservaYSeEnvia() throws Exception {
+		emailQueueService.encolar(1L, List.of("a@correo.com", "b@correo.com"), Evento.LOGIN_FALLIDO, "Asunto", "Cuerpo");
+
+		EmailLog log = esperarEstado(EstadoCorreo.ENVIADO);
+		assertThat(log.getIntentos()).isEqualTo(1);
+		assertThat(log.getProximoIntento()).isNull();
+		assertThat(log.getUltimoError()).isNull();
+
+		MimeMessage[] recibidos = greenMail.getReceivedMessages();
+		assertThat(recibidos).hasSize(2); // un mensaje, una copia por destinatario
+		assertThat(recibidos[0].getSubject()).isEqualTo("Asunto");
+		assertThat(GreenMailUtil.getBody(recibidos[0])).contains("Cuerpo");
+	}
+
+	@Test
+	void falloSmtpAplicaBackoffYElBarridoReintenta() throws Exception {
+		mailSender.setPort(puertoCerrado());
+		long antes = System.currentTimeMillis();
+		emailQueueService.encolar(1L, List.of("a@correo.com"), Evento.LOGIN_FALLIDO, "Asunto", "Cuerpo");
+
+		EmailLog fallido = esperarIntentos(1);
+		assertThat(fallido.getEstado()).isEqualTo(EstadoCorreo.PENDIENTE);
+		assertThat(fallido.getUltimoError()).isNotBlank();
+		assertThat(fallido.getProximoIntento().getTime()).isGreaterThanOrEqualTo(antes + 60_000);
+
+		// Con el backoff vigente el barrido no lo toma
+		emailQueueService.barrerPendientes();
+		Thread.sleep(300);
+		assertThat(unico().getIntentos()).isEqualTo(1);
+
+		// Vencido el backoff y con el SMTP de vuelta, el barrido lo envía
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+		vencerBackoff(fallido);
+		emailQueueService.barrerPendientes();
+
+		EmailLog enviado = esperarEstado(EstadoCorreo.ENVIADO);
+		assertThat(enviado.getIntentos()).isEqualTo(2);
+		assertThat(greenMail.getReceivedMessages()).hasSize(1);
+	}
+
+	@Test
+	void alcanzarMaxIntentosLoMarcaFallido() throws Exception {
+		mailSender.setPort(puertoCerrado());
+		emailQueueService.encolar(1L, List.of("a@correo.com"), Evento.LOGIN_FALLIDO, "Asunto", "Cuerpo");
+
+		vencerBackoff(esperarIntentos(1));
+		emailQueueService.barrerPendientes();
+
+		EmailLog agotado = esperarEstado(EstadoCorreo.FALLIDO);
+		assertThat(agotado.getIntentos()).isEqualTo(2);
+		assertThat(agotado.getProximoIntento()).isNull();
+
+		// FALLIDO ya no entra en el barrido
+		emailQueueService.barrerPendientes();
+		Thread.sleep(300);
+		assertThat(unico().getIntentos()).isEqualTo(2);
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+	}
+
+	private EmailLog unico() {
+		List<EmailLog> logs = emailLogRepository.findAll();
+		assertThat(logs).hasSize(1);
+		return logs.get(0);
+	}
+
+	private EmailLog esperarEstado(EstadoCorreo estado) {
+		await().atMost(Duration.ofSeconds(10)).until(() -> unico().getEstado() == estado);
+		return unico();
+	}
+
+	private EmailLog esperarIntentos(int intentos) {
+		await().atMost(Duration.ofSeconds(10)).until(() -> unico().getIntentos() == intentos
+				&& unico().getEstado() != EstadoCorreo.ENVIANDO);
+		return unico();
+	}
+
+	private void vencerBackoff(EmailLog log) {
+		log.setProximoIntento(new Date(System.currentTimeMillis() - 1000));
+		emailLogRepository.save(log);
+	}
+
+	private static int puertoCerrado() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.Tapia.ProyectoResidencia.Service;
+
+import com.Tapia.ProyectoResidencia.DTO.SeccionResponse;
+import com.Tapia.ProyectoResidencia.Enum.Rol;
+import com.Tapia.ProyectoResidencia.Enum.Status;
+import com.Tapia.ProyectoResidencia.Model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verifica que el listado paginado de secciones emita siempre las mismas tres consultas
+// (página con asignación, localidades de la página y conteo), sin cargas perezosas por fila
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SeccionService.class)
+class SeccionServiceConsultasTest {
+
+	@Autowired
+	private SeccionService seccionService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@MockitoBean
+	private UsuarioService usuarioService;
+
+	@MockitoBean
+	private SystemLogService systemLogService;
+
+	@MockitoBean
+	private AnioCatalogoService anioCatalogoService;
+
+	@BeforeEach
+	void crearDatos() {
+		Usuario usuario = new Usuario();
+		usuario.setCorreo("responsable@correo.com");
+		usuario.setContrasena("Contrasena1!");
+		usuario.setNombre("Juan");
+		usuario.setApellidoPaterno("Pérez");
+		usuario.setApellidoMaterno("López");
+		usuario.setStatus(Status.ACTIVO);
+		usuario.setRol(Rol.VOCAL);
+		usuario.setGenero("Masculino");
+		usuario.setTelefono("5512345678");
+		usuario.setFechaRegistro(new Date());
+		entityManager.persist(usuario);
+
+		Zore zore = new Zore();
+		zore.setNumeracion(1);
+		zore.setAnio("2025");
+		zore.setUsuario(usuario);
+		entityManager.persist(zore);
+
+		Are are = new Are();
+		are.setNumeracion(1);
+		are.setAnio("2025");
+		are.setUsuario(usuario);
+		entityManager.persist(are);
+
+		AsignacionZoreAre asignacion = new AsignacionZoreAre();
+		asignacion.setAnio("2025");
+		asignacion.setZore(zore);
+		asignacion.setAre(are);
+		entityManager.persist(asignacion);
+
+		Municipio municipio = new Municipio();
+		municipio.setId("075");
+		municipio.setNombre("Municipio");
+		entityManager.persist(municipio);
+
+		Localidad primera = localidad("0001", municipio);
+		Localidad segunda = localidad("0002", municipio);
+
+		// Tres secciones con página de dos: la página queda llena y se ejecuta el conteo
+		for (String numero : new String[]{"0001", "0002", "0003"}) {
+			Seccion seccion = new Seccion();
+			seccion.setNumeroSeccion(numero);
+			seccion.setAnio("2025");
+			seccion.setAsignacionZoreAre(asignacion);
+			seccion.setLocalidades(Set.of(primera, segunda));
+			entityManager.persist(seccion);
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listarPaginadasEmiteTresConsultas() {
+		Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estadisticas.clear();
+
+		Page<SeccionResponse> pagina = seccionService.listarPaginadas(PageRequest.of(0, 2));
+
+		assertThat(pagina.getContent()).hasSize(2);
+		assertThat(pagina.getTotalElements()).isEqualTo(3);
+		assertThat(pagina.getContent()).allSatisfy(s -> {
+			assertThat(s.localidades()).hasSize(2);
+			assertThat(s.municipio().id()).isEqualTo("075");
+			assertThat(s.asignacionZoreAre().zore().responsable().nombreCompleto()).isEqualTo("Juan Pérez López");
+		});
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	private Localidad localidad(String numero, Municipio municipio) {
+		Localidad localidad = new Localidad();
+		localidad.setNumeroLocalidad(numero);
+		localidad.setNombre("Localidad " + numero);
+		localidad.setMunicipio(municipio);
+		return entityManager.persist(localidad);
+	}
+}